@@ -0,0 +1,27 @@
+package com.example.taskmanager.benchmarks;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Entry point of benchmarks.jar: runs JMH and, unless {@code -rf}/{@code -rff} are given, writes
+ * machine-readable results to {@code results/jmh-<timestamp>.json} for {@link CompareResults}.
+ */
+public final class BenchmarkMain {
+
+    private BenchmarkMain() {}
+
+    public static void main(String[] args) throws Exception {
+        List<String> argv = new ArrayList<>(Arrays.asList(args));
+        boolean listing = argv.contains("-l") || argv.contains("-lp") || argv.contains("-h");
+        if (!listing && !argv.contains("-rf") && !argv.contains("-rff")) {
+            String stamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+            new java.io.File("results").mkdirs();
+            argv.addAll(List.of("-rf", "json", "-rff", "results/jmh-" + stamp + ".json"));
+        }
+        org.openjdk.jmh.Main.main(argv.toArray(String[]::new));
+    }
+}
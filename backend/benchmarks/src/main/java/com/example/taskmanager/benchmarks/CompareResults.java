@@ -0,0 +1,78 @@
+package com.example.taskmanager.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Compares two JMH JSON result files benchmark by benchmark (name plus params).
+ * Usage: {@code CompareResults baseline.json candidate.json [thresholdPercent]}.
+ * Exits with status 1 when any benchmark got worse by more than the threshold (default 10%),
+ * taking the score direction of the mode into account (lower is better for time modes).
+ */
+public final class CompareResults {
+
+    private record Score(double value, double error, String unit, boolean higherIsBetter) {}
+
+    private CompareResults() {}
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.err.println("usage: CompareResults <baseline.json> <candidate.json> [thresholdPercent]");
+            System.exit(2);
+        }
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : 10.0;
+        Map<String, Score> baseline = read(new File(args[0]));
+        Map<String, Score> candidate = read(new File(args[1]));
+
+        int regressions = 0;
+        System.out.printf("%-60s %14s %14s %9s%n", "benchmark", "baseline", "candidate", "change");
+        for (var e : candidate.entrySet()) {
+            Score before = baseline.get(e.getKey());
+            Score after = e.getValue();
+            if (before == null) {
+                System.out.printf("%-60s %14s %14.3f %9s%n", e.getKey(), "-", after.value(), "new");
+                continue;
+            }
+            double change = (after.value() - before.value()) / before.value() * 100;
+            double worse = after.higherIsBetter() ? -change : change;
+            // Differences within the combined error bars are noise, not regressions
+            boolean significant = Math.abs(after.value() - before.value()) > before.error() + after.error();
+            boolean regressed = significant && worse > threshold;
+            if (regressed) {
+                regressions++;
+            }
+            System.out.printf("%-60s %14.3f %14.3f %+8.1f%% %s %s%n", e.getKey(), before.value(), after.value(),
+                    change, after.unit(), regressed ? "REGRESSION" : "");
+        }
+        if (regressions > 0) {
+            System.out.println(regressions + " benchmark(s) regressed by more than " + threshold + "%");
+            System.exit(1);
+        }
+    }
+
+    private static Map<String, Score> read(File file) throws Exception {
+        Map<String, Score> scores = new LinkedHashMap<>();
+        for (JsonNode run : new ObjectMapper().readTree(file)) {
+            StringBuilder key = new StringBuilder(
+                    run.get("benchmark").asText().replace(CompareResults.class.getPackageName() + ".", ""));
+            JsonNode params = run.get("params");
+            if (params != null) {
+                for (Iterator<Map.Entry<String, JsonNode>> it = params.fields(); it.hasNext(); ) {
+                    var p = it.next();
+                    key.append(' ').append(p.getKey()).append('=').append(p.getValue().asText());
+                }
+            }
+            JsonNode metric = run.get("primaryMetric");
+            String mode = run.get("mode").asText();
+            double error = metric.get("scoreError").asDouble();
+            scores.put(key.toString(), new Score(metric.get("score").asDouble(), Double.isNaN(error) ? 0 : error,
+                    metric.get("scoreUnit").asText(), mode.equals("thrpt")));
+        }
+        return scores;
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.taskmanager.benchmarks;
+
+import com.example.taskmanager.util.DateTimeUtil;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link DateTimeUtil#formatLocal}, which builds its formatter on every call, against the same
+ * pattern with a formatter built once.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DateTimeUtilBenchmark {
+
+    private static final DateTimeFormatter CACHED = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")
+            .withZone(ZoneId.of("Europe/Athens"));
+
+    private final Instant instant = Instant.parse("2026-03-29T00:30:00Z");
+
+    @Benchmark
+    public String formatLocal() {
+        return DateTimeUtil.formatLocal(instant);
+    }
+
+    @Benchmark
+    public String cachedFormatter() {
+        return CACHED.format(instant);
+    }
+}
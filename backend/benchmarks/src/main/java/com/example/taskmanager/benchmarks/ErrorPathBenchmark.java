@@ -0,0 +1,61 @@
+package com.example.taskmanager.benchmarks;
+
+import com.example.taskmanager.web.ApiError;
+import com.example.taskmanager.web.GlobalExceptionHandler;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of a 404 through {@link GlobalExceptionHandler}: creating the exception (stack trace capture
+ * dominates), building the {@link ApiError} response, and writing its JSON body.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ErrorPathBenchmark {
+
+    private final GlobalExceptionHandler handler = new GlobalExceptionHandler();
+    private final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/tasks/42");
+    private final ResponseStatusException prebuilt =
+            new ResponseStatusException(HttpStatus.NOT_FOUND, "Task not found");
+    private ObjectMapper mapper;
+
+    @Setup
+    public void setup() {
+        mapper = JsonMapper.builder()
+                .addModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+    }
+
+    @Benchmark
+    public ResponseEntity<ApiError> handleOnly() {
+        return handler.handleStatus(prebuilt, request);
+    }
+
+    @Benchmark
+    public ResponseEntity<ApiError> throwAndHandle() {
+        try {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Task not found");
+        } catch (ResponseStatusException e) {
+            return handler.handleStatus(e, request);
+        }
+    }
+
+    @Benchmark
+    public byte[] throwHandleAndSerialize() throws Exception {
+        return mapper.writeValueAsBytes(throwAndHandle().getBody());
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.taskmanager.benchmarks;
+
+import com.example.taskmanager.security.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request JWT validation cost: the old three-parse path (a fresh parser per call for
+ * username, username again and expiry) against the single-parse {@link JwtUtil#validate},
+ * plus the cost of issuing an access token as login and refresh do.
+ * Run with {@code -prof gc} to get allocations per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtValidationBenchmark {
+
+    private static final String SECRET = "benchmark_secret_of_at_least_32_characters";
+
+    private JwtUtil jwt;
+    private Key key;
+    private String token;
+
+    @Setup
+    public void setup() {
+        jwt = new JwtUtil(SECRET, 3_600_000, new SimpleMeterRegistry());
+        key = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+        // Same shape as a login token: role, family and token version claims
+        token = jwt.generateToken("eleni", "ROLE_ADMIN", "3f1c9a52-7d4e-4b8a-9c61-0e2d5f7a8b90", 0);
+    }
+
+    @Benchmark
+    public boolean legacyTripleParse() {
+        // filter: extractUsername, then isTokenValid: extractUsername + isExpired
+        String username = legacyClaims().getSubject();
+        return legacyClaims().getSubject().equals(username) && !legacyClaims().getExpiration().before(new Date());
+    }
+
+    @Benchmark
+    public Object singleParse() {
+        return jwt.validate(token).orElseThrow();
+    }
+
+    @Benchmark
+    public String generate() {
+        return jwt.generateToken("eleni", "ROLE_ADMIN", "3f1c9a52-7d4e-4b8a-9c61-0e2d5f7a8b90", 0);
+    }
+
+    private Claims legacyClaims() {
+        return Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody();
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.taskmanager.benchmarks;
+
+import com.example.taskmanager.dto.TaskDto;
+import com.example.taskmanager.enums.TaskStatus;
+import com.example.taskmanager.mapper.TaskMapper;
+import com.example.taskmanager.mapper.TaskMapperImpl;
+import com.example.taskmanager.model.Project;
+import com.example.taskmanager.model.Task;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to DTO mapping of a task list, as done for every list and export page.
+ * Time per call scales with {@code size}; compare per-task cost across sizes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskMapperBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    private int size;
+
+    private final TaskMapper mapper = new TaskMapperImpl();
+    private List<Task> tasks;
+
+    @Setup
+    public void setup() {
+        tasks = Fixtures.tasks(size);
+    }
+
+    @Benchmark
+    public List<TaskDto> toDtoList() {
+        List<TaskDto> out = new ArrayList<>(tasks.size());
+        for (Task t : tasks) {
+            out.add(mapper.toDto(t));
+        }
+        return out;
+    }
+
+    static final class Fixtures {
+
+        private Fixtures() {}
+
+        static List<Task> tasks(int n) {
+            Project project = Project.builder().id(1L).name("Benchmark").createdDate(Instant.EPOCH).build();
+            TaskStatus[] statuses = TaskStatus.values();
+            Instant base = Instant.parse("2026-01-01T00:00:00Z");
+            List<Task> tasks = new ArrayList<>(n);
+            for (int i = 0; i < n; i++) {
+                tasks.add(Task.builder()
+                        .id((long) i + 1)
+                        .title("Task " + i)
+                        .description("Description of task " + i + " with a few words of text")
+                        .status(statuses[i % statuses.length])
+                        .deadline(i % 3 == 0 ? null : base.plusSeconds(3600L * i))
+                        .project(project)
+                        .build());
+            }
+            return tasks;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.taskmanager.config;
+
+import com.example.taskmanager.util.StatementCounter;
+import com.example.taskmanager.web.StatementCountFilter;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+@Configuration
+public class MetricsConfig {
+
+    // Backs the class-level @Timed on the services: one app.service timer per class, method and exception
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer statementCounter() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new StatementCounter());
+    }
+
+    // Ahead of the security chain, so statements run while authenticating count too.
+    // The default budget applies to handlers without @StatementBudget.
+    @Bean
+    public FilterRegistrationBean<StatementCountFilter> statementCountFilter(
+            MeterRegistry registry, @Value("${app.sql.statement-budget.default:10}") int defaultBudget) {
+        FilterRegistrationBean<StatementCountFilter> registration =
+                new FilterRegistrationBean<>(new StatementCountFilter(registry, defaultBudget));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
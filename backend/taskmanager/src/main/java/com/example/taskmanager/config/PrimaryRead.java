@@ -0,0 +1,18 @@
+package com.example.taskmanager.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Keeps a {@code @Transactional(readOnly = true)} service method on the primary. For reads whose correctness
+ * depends on seeing every committed write, such as a watermark taken from the database clock: on a replica
+ * that clock runs ahead of what has been replayed, so rows behind it by more than the lag would be missed.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface PrimaryRead {
+}
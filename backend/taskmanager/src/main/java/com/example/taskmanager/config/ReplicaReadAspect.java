@@ -0,0 +1,26 @@
+package com.example.taskmanager.config;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.transaction.annotation.Transactional;
+
+// Marks @Transactional(readOnly = true) methods of @Service beans as safe to serve from the replica,
+// unless they are annotated @PrimaryRead
+@Aspect
+class ReplicaReadAspect {
+
+    @Around("@within(org.springframework.stereotype.Service) && @annotation(transactional)"
+            + " && !@annotation(com.example.taskmanager.config.PrimaryRead)")
+    public Object route(ProceedingJoinPoint call, Transactional transactional) throws Throwable {
+        if (!transactional.readOnly()) {
+            return call.proceed();
+        }
+        boolean previous = ReplicaRoutingDataSource.enterServiceRead();
+        try {
+            return call.proceed();
+        } finally {
+            ReplicaRoutingDataSource.restore(previous);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.taskmanager.config;
+
+import com.example.taskmanager.util.AfterCommit;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Sends read-only service transactions (see {@link ReplicaReadAspect}) to the replica and everything else to
+ * the primary. Read-only transactions opened by repository defaults stay on the primary, so read-then-save
+ * code outside a service transaction never reads stale rows. A user who committed a write keeps reading from
+ * the primary for the read-your-writes window; the window is tracked per node.
+ * Must sit behind a LazyConnectionDataSourceProxy, so the decision is made after the transaction has begun.
+ */
+class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    enum Target { PRIMARY, REPLICA }
+
+    private static final ThreadLocal<Boolean> SERVICE_READ = new ThreadLocal<>();
+
+    private final Cache<String, Boolean> recentWriters;
+    private final Counter primaryWrites;
+    private final Counter primaryReadYourWrites;
+    private final Counter primaryOther;
+    private final Counter replicaReads;
+
+    ReplicaRoutingDataSource(DataSource primary, DataSource replica, Duration readYourWrites, long maxUsers,
+                             MeterRegistry registry) {
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+        this.recentWriters = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .expireAfterWrite(readYourWrites)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(registry, recentWriters, "datasource.recent.writers");
+        this.primaryWrites = routed(registry, Target.PRIMARY, "write");
+        this.primaryReadYourWrites = routed(registry, Target.PRIMARY, "read-your-writes");
+        this.primaryOther = routed(registry, Target.PRIMARY, "other");
+        this.replicaReads = routed(registry, Target.REPLICA, "read");
+    }
+
+    private static Counter routed(MeterRegistry registry, Target target, String reason) {
+        return Counter.builder("app.datasource.routed")
+                .description("Connections handed out, by target database and reason")
+                .tag("target", target.name().toLowerCase())
+                .tag("reason", reason)
+                .register(registry);
+    }
+
+    // Set around @Transactional(readOnly = true) service methods; returns the previous value for restore()
+    static boolean enterServiceRead() {
+        boolean previous = Boolean.TRUE.equals(SERVICE_READ.get());
+        SERVICE_READ.set(Boolean.TRUE);
+        return previous;
+    }
+
+    static void restore(boolean previous) {
+        if (previous) {
+            SERVICE_READ.set(Boolean.TRUE);
+        } else {
+            SERVICE_READ.remove();
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            primaryOther.increment();
+            return Target.PRIMARY;
+        }
+        String user = currentUser();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (user != null) {
+                AfterCommit.run(() -> recentWriters.put(user, Boolean.TRUE));
+            }
+            primaryWrites.increment();
+            return Target.PRIMARY;
+        }
+        if (!Boolean.TRUE.equals(SERVICE_READ.get())) {
+            primaryOther.increment();
+            return Target.PRIMARY;
+        }
+        if (user != null && recentWriters.getIfPresent(user) != null) {
+            primaryReadYourWrites.increment();
+            return Target.PRIMARY;
+        }
+        replicaReads.increment();
+        return Target.REPLICA;
+    }
+
+    private static String currentUser() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        return auth == null || auth instanceof AnonymousAuthenticationToken ? null : auth.getName();
+    }
+}
@@ -1,6 +1,10 @@
 package com.example.taskmanager.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
@@ -9,10 +13,69 @@ import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerCo
 @Configuration
 @EnableWebSocketMessageBroker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
+
+    public enum BrokerMode { SIMPLE, RELAY }
+
+    private final BrokerMode mode;
+    private final String relayHost;
+    private final int relayPort;
+    private final String relayLogin;
+    private final String relayPasscode;
+    private final boolean virtualThreads;
+    private final WebSocketSendMetrics sendMetrics;
+
+    public WebSocketConfig(@Value("${app.websocket.broker:simple}") BrokerMode mode,
+                           @Value("${app.websocket.relay.host:localhost}") String relayHost,
+                           @Value("${app.websocket.relay.port:61613}") int relayPort,
+                           @Value("${app.websocket.relay.login:guest}") String relayLogin,
+                           @Value("${app.websocket.relay.passcode:guest}") String relayPasscode,
+                           @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+                           MeterRegistry registry) {
+        this.mode = mode;
+        this.relayHost = relayHost;
+        this.relayPort = relayPort;
+        this.relayLogin = relayLogin;
+        this.relayPasscode = relayPasscode;
+        this.virtualThreads = virtualThreads;
+        this.sendMetrics = new WebSocketSendMetrics(registry);
+    }
+
+    // Boot switches Tomcat and the schedulers to virtual threads; the STOMP channels keep their own
+    // fixed pools unless given an executor here
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        if (virtualThreads) {
+            registration.executor(new VirtualThreadTaskExecutor("ws-inbound-"));
+        }
+    }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        registration.interceptors(sendMetrics);
+        if (virtualThreads) {
+            registration.executor(new VirtualThreadTaskExecutor("ws-outbound-"));
+        }
+    }
+
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
-        config.enableSimpleBroker("/topic");
+        if (mode == BrokerMode.RELAY) {
+            // Subscriptions live in an external STOMP broker, so an event sent by any replica
+            // reaches clients connected to every other replica
+            config.enableStompBrokerRelay("/topic")
+                    .setRelayHost(relayHost)
+                    .setRelayPort(relayPort)
+                    .setClientLogin(relayLogin)
+                    .setClientPasscode(relayPasscode)
+                    .setSystemLogin(relayLogin)
+                    .setSystemPasscode(relayPasscode);
+        } else {
+            // In-JVM broker: fine for a single instance only
+            config.enableSimpleBroker("/topic");
+        }
         config.setApplicationDestinationPrefixes("/app");
+        // One virtual thread per message has no per-session ordering of its own
+        config.setPreservePublishOrder(virtualThreads);
     }
 
     @Override
@@ -20,5 +83,7 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
         // Use non-default path to avoid conflict with webpack-dev-server which also uses "/ws" for HMR
         registry.addEndpoint("/stomp").setAllowedOriginPatterns("*");
         registry.addEndpoint("/stomp").setAllowedOriginPatterns("*").withSockJS();
+        // Same for inbound frames: without this, a client's SUBSCRIBE and SEND may be handled out of order
+        registry.setPreserveReceiveOrder(virtualThreads);
     }
 }
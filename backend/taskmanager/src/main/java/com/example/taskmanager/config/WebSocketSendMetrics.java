@@ -0,0 +1,47 @@
+package com.example.taskmanager.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ChannelInterceptor;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Counts messages delivered to WebSocket sessions as {@code websocket.messages.sent}, tagged by destination
+ * with numeric segments collapsed ({@code /topic/projects/{id}/tasks}) so the tag stays bounded.
+ */
+class WebSocketSendMetrics implements ChannelInterceptor {
+
+    private static final Pattern ID_SEGMENT = Pattern.compile("/\\d+(?=/|$)");
+
+    private final MeterRegistry registry;
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+
+    WebSocketSendMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    static String prefix(String destination) {
+        return ID_SEGMENT.matcher(destination).replaceAll("/{id}");
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        if (SimpMessageHeaderAccessor.getMessageType(message.getHeaders()) == SimpMessageType.MESSAGE) {
+            String destination = SimpMessageHeaderAccessor.getDestination(message.getHeaders());
+            if (destination != null) {
+                counters.computeIfAbsent(prefix(destination), p -> Counter.builder("websocket.messages.sent")
+                        .description("Messages sent to WebSocket subscribers")
+                        .tag("destination", p)
+                        .register(registry)).increment();
+            }
+        }
+        return message;
+    }
+}
@@ -1,9 +1,12 @@
 package com.example.taskmanager.controller;
 
 import com.example.taskmanager.enums.UserRole;
-import com.example.taskmanager.security.JwtUtil;
+import com.example.taskmanager.dto.TokenResponse;
+import com.example.taskmanager.security.LoginRateLimiter;
+import com.example.taskmanager.service.TokenService;
 import com.example.taskmanager.service.UserService;
 import com.example.taskmanager.web.ApiError;
+import com.example.taskmanager.web.StatementBudget;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.*;
 import io.swagger.v3.oas.annotations.responses.*;
@@ -13,19 +16,20 @@ import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
-import java.util.Map;
 
 @RestController
 @Tag(name = "Auth", description = "Registration and login")
 public class AuthController {
 
     private final UserService users;
-    private final JwtUtil jwt;
+    private final TokenService tokens;
+    private final LoginRateLimiter limiter;
 
-    public AuthController(UserService users, JwtUtil jwt) {
-        this.users = users; this.jwt = jwt;
+    public AuthController(UserService users, TokenService tokens, LoginRateLimiter limiter) {
+        this.users = users; this.tokens = tokens; this.limiter = limiter;
     }
 
     public record RegisterRequest(
@@ -37,6 +41,8 @@ public class AuthController {
             @NotBlank @Schema(example = "eleni") String username,
             @NotBlank @Schema(example = "P@ssw0rd!") String password) {}
 
+    public record RefreshRequest(@NotBlank String refreshToken) {}
+
     @Operation(summary = "Register a new user")
     @ApiResponses({
             @ApiResponse(responseCode = "201", description = "User created"),
@@ -46,20 +52,29 @@ public class AuthController {
                     content = @Content(schema = @Schema(implementation = ApiError.class)))
     })
     @PostMapping("/register")
+    @StatementBudget(3)
     @ResponseStatus(HttpStatus.CREATED)
     public void register(@RequestBody @Valid RegisterRequest req) {
         users.register(req.username(), req.password(), req.role() == null ? UserRole.ROLE_USER : req.role());
     }
 
-    @Operation(summary = "Authenticate and get JWT token")
+    @Operation(summary = "Authenticate and get JWT tokens",
+            description = "Returns a short-lived access token and a single-use refresh token for POST /token/refresh.")
     @ApiResponses({
-            @ApiResponse(responseCode = "200", description = "Token returned",
-                    content = @Content(schema = @Schema(implementation = Map.class))),
+            @ApiResponse(responseCode = "200", description = "Tokens returned",
+                    content = @Content(schema = @Schema(implementation = TokenResponse.class))),
             @ApiResponse(responseCode = "401", description = "Bad credentials",
+                    content = @Content(schema = @Schema(implementation = ApiError.class))),
+            @ApiResponse(responseCode = "429", description = "Too many attempts for this user or address; see Retry-After",
+                    content = @Content(schema = @Schema(implementation = ApiError.class))),
+            @ApiResponse(responseCode = "503", description = "Password checks saturated, retry shortly",
                     content = @Content(schema = @Schema(implementation = ApiError.class)))
     })
     @PostMapping("/login")
-    public Map<String, String> login(@RequestBody @Valid LoginRequest req) {
+    @StatementBudget(5)
+    public TokenResponse login(@RequestBody @Valid LoginRequest req, HttpServletRequest request) {
+        // Before the user lookup and the hash, so rejected attempts cost next to nothing
+        limiter.check(req.username(), request.getRemoteAddr());
         UserDetails ud = users.loadUserByUsername(req.username());
         // Some test setups may use "{noop}" prefix in stored password; strip for passwordMatches stub
         String stored = ud.getPassword();
@@ -70,6 +85,31 @@ public class AuthController {
             throw new BadCredentialsException("Bad credentials");
         }
         String role = ud.getAuthorities().iterator().next().getAuthority();
-        return Map.of("token", jwt.generateToken(ud.getUsername(), role));
+        return tokens.issue(ud.getUsername(), role);
+    }
+
+    @Operation(summary = "Exchange a refresh token for a new token pair",
+            description = "Each refresh token works once; presenting a used one ends the whole session.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Tokens returned",
+                    content = @Content(schema = @Schema(implementation = TokenResponse.class))),
+            @ApiResponse(responseCode = "401", description = "Refresh token invalid, reused, revoked or expired",
+                    content = @Content(schema = @Schema(implementation = ApiError.class)))
+    })
+    @PostMapping("/token/refresh")
+    @StatementBudget(4)
+    public TokenResponse refresh(@RequestBody @Valid RefreshRequest req) {
+        return tokens.refresh(req.refreshToken());
+    }
+
+    @Operation(summary = "Log out: revoke the session of a refresh token")
+    @ApiResponses({
+            @ApiResponse(responseCode = "204", description = "Session revoked (or token already invalid)")
+    })
+    @PostMapping("/token/revoke")
+    @StatementBudget(2)
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void revoke(@RequestBody @Valid RefreshRequest req) {
+        tokens.revoke(req.refreshToken());
     }
 }
@@ -4,13 +4,17 @@ import com.example.taskmanager.dto.ProjectCreateDto;
 import com.example.taskmanager.dto.ProjectDto;
 import com.example.taskmanager.service.ProjectService;
 import com.example.taskmanager.web.ApiError;
+import com.example.taskmanager.web.ETags;
+import com.example.taskmanager.web.StatementBudget;
 import io.swagger.v3.oas.annotations.*;
 import io.swagger.v3.oas.annotations.media.*;
 import io.swagger.v3.oas.annotations.responses.*;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import jakarta.validation.Valid;
 import java.util.List;
@@ -28,11 +32,35 @@ public class ProjectController {
     private final ProjectService projects;
     public ProjectController(ProjectService projects) { this.projects = projects; }
 
-    @Operation(summary = "List all projects")
-    @ApiResponse(responseCode = "200", description = "Projects retrieved",
-            content = @Content(array = @ArraySchema(schema = @Schema(implementation = ProjectDto.class))))
+    @Operation(summary = "List all projects", description = "Supports If-None-Match; unchanged listings return 304.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Projects retrieved",
+                    content = @Content(array = @ArraySchema(schema = @Schema(implementation = ProjectDto.class)))),
+            @ApiResponse(responseCode = "304", description = "Not modified since the given ETag")
+    })
     @GetMapping
-    public List<ProjectDto> getAll() { return projects.findAll(); }
+    @StatementBudget(2)
+    public ResponseEntity<List<ProjectDto>> getAll(WebRequest request) {
+        // The ETag hashes the (usually cached) list itself, so it always matches the body sent
+        List<ProjectDto> all = projects.findAll();
+        if (request.checkNotModified(ETags.of("projects", all.hashCode()))) {
+            return null;
+        }
+        return ResponseEntity.ok().cacheControl(ETags.REVALIDATE).body(all);
+    }
+
+    @Operation(summary = "Delete a project and all of its tasks",
+            description = "Tasks are removed in bulk chunks; subscribers of the project topic receive one projectDeleted event."
+                    + " The project disappears from the API as soon as deletion starts; if it fails part way,"
+                    + " deleting the project again resumes it.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "204", description = "Project deleted"),
+            @ApiResponse(responseCode = "404", description = "Project not found", content = @Content(schema = @Schema(implementation = ApiError.class)))
+    })
+    @DeleteMapping("/{id}")
+    @StatementBudget(5)
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void delete(@PathVariable Long id) { projects.delete(id); }
 
     @Operation(summary = "Create a new project")
     @ApiResponses({
@@ -41,6 +69,7 @@ public class ProjectController {
             @ApiResponse(responseCode = "400", description = "Invalid payload", content = @Content(schema = @Schema(implementation = ApiError.class)))
     })
     @PostMapping
+    @StatementBudget(3)
     @ResponseStatus(HttpStatus.CREATED)
     public ProjectDto create(@RequestBody @Valid ProjectCreateDto p) { return projects.create(p); }
 }
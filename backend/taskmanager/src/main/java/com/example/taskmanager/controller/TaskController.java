@@ -1,19 +1,38 @@
 package com.example.taskmanager.controller;
 
+import com.example.taskmanager.dto.TaskBatchRequest;
+import com.example.taskmanager.dto.TaskBatchResult;
+import com.example.taskmanager.dto.TaskChanges;
 import com.example.taskmanager.dto.TaskCreateDto;
 import com.example.taskmanager.dto.TaskDto;
+import com.example.taskmanager.dto.TaskFilter;
+import com.example.taskmanager.dto.TaskPage;
 import com.example.taskmanager.dto.TaskUpdateDto;
+import com.example.taskmanager.enums.TaskStatus;
+import com.example.taskmanager.service.TaskChangeService;
 import com.example.taskmanager.service.TaskService;
 import com.example.taskmanager.web.ApiError;
+import com.example.taskmanager.web.ETags;
+import com.example.taskmanager.web.StatementBudget;
+import com.example.taskmanager.web.TaskExportWriter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import io.swagger.v3.oas.annotations.*;
 import io.swagger.v3.oas.annotations.media.*;
 import io.swagger.v3.oas.annotations.responses.*;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import jakarta.validation.Valid;
+import java.time.Instant;
 import java.util.List;
 
 @RestController
@@ -25,15 +44,103 @@ import java.util.List;
 })
 public class TaskController {
 
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final TaskService tasks;
-    public TaskController(TaskService tasks) { this.tasks = tasks; }
+    private final TaskChangeService changes;
+    private final ObjectWriter exportJson;
+    private final int defaultPageSize;
+    private final int maxPageSize;
+    private final int maxBatchOperations;
+
+    public TaskController(TaskService tasks, TaskChangeService changes, ObjectMapper objectMapper,
+                          @Value("${app.tasks.page.default-size:200}") int defaultPageSize,
+                          @Value("${app.tasks.page.max-size:1000}") int maxPageSize,
+                          @Value("${app.tasks.batch.max-operations:500}") int maxBatchOperations) {
+        this.tasks = tasks;
+        this.changes = changes;
+        this.exportJson = objectMapper.writerFor(TaskDto.class);
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+        this.maxBatchOperations = maxBatchOperations;
+    }
 
-    @Operation(summary = "List tasks for a project")
-    @ApiResponse(responseCode = "200", description = "Tasks retrieved",
-            content = @Content(array = @ArraySchema(schema = @Schema(implementation = TaskDto.class))))
+    @Operation(summary = "List tasks for a project",
+            description = "Keyset-paginated by id. When more tasks exist, the " + NEXT_CURSOR_HEADER
+                    + " response header holds the value to pass as 'after' for the next page."
+                    + " Supports If-None-Match; the ETag changes whenever any task of the project changes"
+                    + " and differs per cursor, page size and filter.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Tasks retrieved",
+                content = @Content(array = @ArraySchema(schema = @Schema(implementation = TaskDto.class)))),
+        @ApiResponse(responseCode = "304", description = "Not modified since the given ETag"),
+        @ApiResponse(responseCode = "404", description = "Project not found", content = @Content(schema = @Schema(implementation = ApiError.class)))
+    })
     @GetMapping("/projects/{projectId}/tasks")
-    public List<TaskDto> byProject(@Parameter(description = "Project ID") @PathVariable Long projectId) {
-        return tasks.findByProject(projectId);
+    @StatementBudget(3)
+    public ResponseEntity<List<TaskDto>> byProject(
+            @Parameter(description = "Project ID") @PathVariable Long projectId,
+            @Parameter(description = "Return tasks with id greater than this cursor") @RequestParam(required = false) Long after,
+            @Parameter(description = "Page size (capped by app.tasks.page.max-size)") @RequestParam(required = false) Integer limit,
+            @Parameter(description = "Only tasks in this status") @RequestParam(required = false) TaskStatus status,
+            @Parameter(description = "Deadline at or after (ISO-8601 instant)") @RequestParam(required = false) Instant deadlineFrom,
+            @Parameter(description = "Deadline before (ISO-8601 instant)") @RequestParam(required = false) Instant deadlineTo,
+            @Parameter(description = "Filter on the expiry-notified flag") @RequestParam(required = false) Boolean expiredNotified,
+            WebRequest request) {
+        int size = limit == null ? defaultPageSize : Math.max(1, Math.min(limit, maxPageSize));
+        TaskFilter filter = new TaskFilter(status, deadlineFrom, deadlineTo, expiredNotified);
+        // Version first (404 for unknown projects); a poll with a current ETag stops here
+        if (request.checkNotModified(ETags.of("tasks-p" + projectId, tasks.listVersion(projectId), after, size, filter))) {
+            return null;
+        }
+        TaskPage page = tasks.findByProject(projectId, filter, after, size);
+        var response = ResponseEntity.ok().cacheControl(ETags.REVALIDATE);
+        if (page.nextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.nextCursor().toString());
+        }
+        return response.body(page.items());
+    }
+
+    @Operation(summary = "Export all tasks of a project",
+            description = "Streams every task as NDJSON (default) or CSV without buffering the project in memory.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Export stream",
+                content = {@Content(mediaType = "application/x-ndjson"), @Content(mediaType = "text/csv")}),
+        @ApiResponse(responseCode = "400", description = "Unsupported format", content = @Content(schema = @Schema(implementation = ApiError.class))),
+        @ApiResponse(responseCode = "404", description = "Project not found", content = @Content(schema = @Schema(implementation = ApiError.class)))
+    })
+    @GetMapping("/projects/{projectId}/tasks/export")
+    @StatementBudget(2)
+    public ResponseEntity<StreamingResponseBody> export(
+            @Parameter(description = "Project ID") @PathVariable Long projectId,
+            @Parameter(description = "ndjson or csv") @RequestParam(defaultValue = "ndjson") String format) {
+        TaskExportWriter.Format f = TaskExportWriter.Format.of(format);
+        tasks.ensureProjectExists(projectId);
+        StreamingResponseBody body = out -> tasks.exportByProject(projectId, new TaskExportWriter(f, exportJson, out));
+        return ResponseEntity.ok()
+                .contentType(f.mediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"project-" + projectId + "-tasks." + f.extension() + "\"")
+                .body(body);
+    }
+
+    @Operation(summary = "Task changes since a watermark",
+            description = "Tasks inserted or updated and ids of tasks deleted since 'since'. Pass the returned "
+                    + "watermark as 'since' on the next call; changes near the watermark may be repeated.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Changes retrieved",
+                content = @Content(schema = @Schema(implementation = TaskChanges.class))),
+        @ApiResponse(responseCode = "400", description = "Watermark ahead of the server clock", content = @Content(schema = @Schema(implementation = ApiError.class))),
+        @ApiResponse(responseCode = "404", description = "Project not found", content = @Content(schema = @Schema(implementation = ApiError.class))),
+        @ApiResponse(responseCode = "410", description = "Watermark older than the change history; reload the full list",
+                content = @Content(schema = @Schema(implementation = ApiError.class)))
+    })
+    @GetMapping("/projects/{projectId}/tasks/changes")
+    @StatementBudget(3)
+    public TaskChanges changes(
+            @Parameter(description = "Project ID") @PathVariable Long projectId,
+            @Parameter(description = "Watermark from the previous sync (ISO-8601 instant)") @RequestParam Instant since) {
+        return changes.changesSince(projectId, since);
     }
 
     @Operation(summary = "Create task in a project")
@@ -43,11 +150,30 @@ public class TaskController {
         @ApiResponse(responseCode = "404", description = "Project not found", content = @Content(schema = @Schema(implementation = ApiError.class)))
     })
     @PostMapping("/projects/{projectId}/tasks")
+    @StatementBudget(3)
     @ResponseStatus(HttpStatus.CREATED)
     public TaskDto create(@PathVariable Long projectId, @RequestBody @Valid TaskCreateDto t) {
         return tasks.create(projectId, t);
     }
 
+    @Operation(summary = "Create, update and delete tasks of a project in one request",
+            description = "All operations run in a single transaction and produce one aggregated WebSocket event.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Batch applied",
+                content = @Content(schema = @Schema(implementation = TaskBatchResult.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid batch or too many operations", content = @Content(schema = @Schema(implementation = ApiError.class))),
+        @ApiResponse(responseCode = "404", description = "Project or task not found", content = @Content(schema = @Schema(implementation = ApiError.class)))
+    })
+    @PostMapping("/projects/{projectId}/tasks:batch")
+    @StatementBudget(5)
+    public TaskBatchResult batch(@PathVariable Long projectId, @RequestBody @Valid TaskBatchRequest batch) {
+        if (batch.size() > maxBatchOperations) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "At most " + maxBatchOperations + " operations per batch");
+        }
+        return tasks.applyBatch(projectId, batch);
+    }
+
     @Operation(summary = "Update a task")
     @ApiResponses({
         @ApiResponse(responseCode = "200", description = "Task updated",
@@ -55,6 +181,7 @@ public class TaskController {
         @ApiResponse(responseCode = "404", description = "Task not found", content = @Content(schema = @Schema(implementation = ApiError.class)))
     })
     @PutMapping("/tasks/{id}")
+    @StatementBudget(3)
     public TaskDto update(@PathVariable Long id, @RequestBody @Valid TaskUpdateDto t) {
         return tasks.update(id, t);
     }
@@ -65,19 +192,25 @@ public class TaskController {
         @ApiResponse(responseCode = "404", description = "Task not found", content = @Content(schema = @Schema(implementation = ApiError.class)))
     })
     @DeleteMapping("/tasks/{id}")
+    @StatementBudget(3)
     @ResponseStatus(HttpStatus.NO_CONTENT)
     public void delete(@PathVariable Long id) {
         tasks.delete(id);
     }
 
-    @Operation(summary = "Get a task by ID")
+    @Operation(summary = "Get a task by ID", description = "Supports If-None-Match; the ETag follows the task version.")
     @ApiResponses({
         @ApiResponse(responseCode = "200", description = "Task found",
                 content = @Content(schema = @Schema(implementation = TaskDto.class))),
+        @ApiResponse(responseCode = "304", description = "Not modified since the given ETag"),
         @ApiResponse(responseCode = "404", description = "Task not found", content = @Content(schema = @Schema(implementation = ApiError.class)))
     })
     @GetMapping("/tasks/{id}")
-    public TaskDto getOne(@PathVariable Long id) {
-        return tasks.get(id);
+    @StatementBudget(3)
+    public ResponseEntity<TaskDto> getOne(@PathVariable Long id, WebRequest request) {
+        if (request.checkNotModified(ETags.of("task-" + id, tasks.version(id)))) {
+            return null;
+        }
+        return ResponseEntity.ok().cacheControl(ETags.REVALIDATE).body(tasks.get(id));
     }
 }
@@ -4,6 +4,7 @@ import com.example.taskmanager.enums.UserRole;
 import com.example.taskmanager.dto.UserDto;
 import com.example.taskmanager.service.UserService;
 import com.example.taskmanager.web.ApiError;
+import com.example.taskmanager.web.StatementBudget;
 import io.swagger.v3.oas.annotations.*;
 import io.swagger.v3.oas.annotations.media.*;
 import io.swagger.v3.oas.annotations.responses.*;
@@ -11,6 +12,7 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
 
@@ -36,6 +38,10 @@ public class UserController {
             @NotBlank String password
     ) {}
 
+    public record ChangeRoleRequest(
+            @NotNull UserRole role
+    ) {}
+
     private final UserService users;
     private final com.example.taskmanager.mapper.UserMapper mapper;
     public UserController(UserService users, com.example.taskmanager.mapper.UserMapper mapper) { this.users = users; this.mapper = mapper; }
@@ -44,6 +50,7 @@ public class UserController {
     @ApiResponse(responseCode = "200", description = "Users retrieved",
             content = @Content(array = @ArraySchema(schema = @Schema(implementation = UserDto.class))))
     @GetMapping
+    @StatementBudget(2)
     public List<UserDto> list() { return users.list().stream().map(mapper::toDto).toList(); }
 
     @Operation(summary = "Create user (admin)")
@@ -54,6 +61,7 @@ public class UserController {
                     content = @Content(schema = @Schema(implementation = ApiError.class)))
     })
     @PostMapping
+    @StatementBudget(3)
     @ResponseStatus(HttpStatus.CREATED)
     public UserDto create(@RequestBody @Valid CreateUserRequest req) {
         return mapper.toDto(users.create(req.username(), req.password(), req.role()));
@@ -66,6 +74,7 @@ public class UserController {
                     content = @Content(schema = @Schema(implementation = ApiError.class)))
     })
     @DeleteMapping("/{id}")
+    @StatementBudget(5)
     @ResponseStatus(HttpStatus.NO_CONTENT)
     public void delete(@PathVariable Long id) { users.delete(id); }
 
@@ -77,7 +86,21 @@ public class UserController {
                     content = @Content(schema = @Schema(implementation = ApiError.class)))
     })
     @PutMapping("/{id}/password")
+    @StatementBudget(5)
     public UserDto changePassword(@PathVariable Long id, @RequestBody @Valid ChangePasswordRequest req) {
         return mapper.toDto(users.changePassword(id, req.password()));
     }
+
+    @Operation(summary = "Change user role (admin)")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Role changed",
+                    content = @Content(schema = @Schema(implementation = UserDto.class))),
+            @ApiResponse(responseCode = "404", description = "User not found",
+                    content = @Content(schema = @Schema(implementation = ApiError.class)))
+    })
+    @PutMapping("/{id}/role")
+    @StatementBudget(4)
+    public UserDto changeRole(@PathVariable Long id, @RequestBody @Valid ChangeRoleRequest req) {
+        return mapper.toDto(users.changeRole(id, req.role()));
+    }
 }
@@ -0,0 +1,23 @@
+package com.example.taskmanager.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.List;
+
+// Any of the lists may be omitted; all operations run in one transaction
+public record TaskBatchRequest(
+        List<@Valid TaskCreateDto> create,
+        List<@Valid TaskBatchUpdate> update,
+        List<@NotNull Long> delete
+) {
+    public TaskBatchRequest {
+        create = create == null ? List.of() : create;
+        update = update == null ? List.of() : update;
+        delete = delete == null ? List.of() : delete;
+    }
+
+    public int size() {
+        return create.size() + update.size() + delete.size();
+    }
+}
@@ -0,0 +1,5 @@
+package com.example.taskmanager.dto;
+
+import java.util.List;
+
+public record TaskBatchResult(List<TaskDto> created, List<TaskDto> updated, List<Long> deleted) {}
@@ -0,0 +1,16 @@
+package com.example.taskmanager.dto;
+
+import com.example.taskmanager.enums.TaskStatus;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.time.Instant;
+
+public record TaskBatchUpdate(
+        @NotNull Long id,
+        @NotBlank @Size(max = 150) String title,
+        String description,
+        @NotNull TaskStatus status,
+        Instant deadline
+) {}
@@ -0,0 +1,7 @@
+package com.example.taskmanager.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+// Delta since a client's watermark; pass 'watermark' back as 'since' on the next sync
+public record TaskChanges(List<TaskDto> changed, List<Long> deleted, Instant watermark) {}
@@ -3,10 +3,11 @@ package com.example.taskmanager.dto;
 import com.example.taskmanager.enums.TaskStatus;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import java.time.Instant;
 
 public record TaskCreateDto(
-        @NotBlank String title,
+        @NotBlank @Size(max = 150) String title,
         String description,
         @NotNull TaskStatus status,
         Instant deadline
@@ -0,0 +1,16 @@
+package com.example.taskmanager.dto;
+
+import com.example.taskmanager.enums.TaskStatus;
+import java.time.Instant;
+
+// Optional server-side filters for task listing; null fields are ignored
+public record TaskFilter(
+        TaskStatus status,
+        Instant deadlineFrom,
+        Instant deadlineTo,
+        Boolean expiredNotified
+) {
+    public static TaskFilter none() {
+        return new TaskFilter(null, null, null, null);
+    }
+}
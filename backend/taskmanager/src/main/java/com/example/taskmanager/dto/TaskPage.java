@@ -0,0 +1,9 @@
+package com.example.taskmanager.dto;
+
+import java.util.List;
+
+// One keyset page of tasks; nextCursor is the id to pass as 'after', null on the last page
+public record TaskPage(
+        List<TaskDto> items,
+        Long nextCursor
+) {}
@@ -0,0 +1,4 @@
+package com.example.taskmanager.dto;
+
+// Short-lived access token, the single-use refresh token that replaces it, and the access lifetime in seconds
+public record TokenResponse(String token, String refreshToken, long expiresIn) {}
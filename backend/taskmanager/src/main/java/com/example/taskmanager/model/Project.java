@@ -22,7 +22,8 @@ import java.util.List;
 public class Project {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "projects_seq")
+    @SequenceGenerator(name = "projects_seq", sequenceName = "projects_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank
@@ -36,6 +37,12 @@ public class Project {
     @Column(name = "created_date", nullable = false, updatable = false)
     private Instant createdDate;
 
+    // Set by ProjectService.delete before any task is removed; such a project is treated as gone (V15)
+    @Column(nullable = false)
+    @Builder.Default
+    private boolean deleting = false;
+
+    // Deletion goes through ProjectService.delete (bulk statements + FK cascade), never through this collection
     @OneToMany(mappedBy = "project", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
     @JsonIgnore // avoid lazy init on project listing; tasks are fetched via dedicated endpoint
     @Builder.Default
@@ -19,8 +19,10 @@ import java.time.Instant;
 )
 public class Task {
 
+    // Pooled sequence (V8) so inserts can be JDBC-batched; IDENTITY forces one round trip per row
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tasks_seq")
+    @SequenceGenerator(name = "tasks_seq", sequenceName = "tasks_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank
@@ -42,6 +44,15 @@ public class Task {
     @Builder.Default
     private boolean expiredNotified = false;
 
+    // Optimistic locking; also bumped on every JPA update
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
+    // Delta-sync watermark, stamped by the database on every insert and update (V12 trigger)
+    @Column(name = "updated_at", nullable = false, insertable = false, updatable = false)
+    private Instant updatedAt;
+
     // FK: tasks.project_id -> projects.id
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "project_id", nullable = false)
@@ -0,0 +1,25 @@
+package com.example.taskmanager.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.Immutable;
+
+import java.time.Instant;
+
+// Written by the tasks_tombstones trigger (V7), never by the application
+@Entity
+@Immutable
+@Table(name = "task_tombstones")
+@Getter @NoArgsConstructor
+public class TaskTombstone {
+
+    @Id
+    @Column(name = "task_id")
+    private Long taskId;
+
+    @Column(name = "project_id", nullable = false)
+    private Long projectId;
+
+    @Column(name = "deleted_at", nullable = false)
+    private Instant deletedAt;
+}
@@ -0,0 +1,28 @@
+package com.example.taskmanager.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "token_families")
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+public class TokenFamily {
+
+    @Id
+    @Column(length = 36)
+    private String id;
+
+    @Column(nullable = false, length = 100)
+    private String username;
+
+    @Column(nullable = false)
+    private int generation;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    @Column(name = "revoked_at")
+    private Instant revokedAt;
+}
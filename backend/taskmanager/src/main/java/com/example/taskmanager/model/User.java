@@ -27,4 +27,8 @@ public class User {
     @Enumerated(EnumType.STRING)
     @Column(nullable = false, length = 50)
     private UserRole role;
+
+    // Access tokens carry this; bumping it invalidates every token issued before
+    @Column(name = "token_version", nullable = false)
+    private int tokenVersion;
 }
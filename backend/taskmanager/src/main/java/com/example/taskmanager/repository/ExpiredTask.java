@@ -0,0 +1,11 @@
+package com.example.taskmanager.repository;
+
+import java.time.Instant;
+
+// Row returned by TaskRepository.markExpired (UPDATE ... RETURNING)
+public interface ExpiredTask {
+    Long getId();
+    String getTitle();
+    Long getProjectId();
+    Instant getDeadline();
+}
@@ -0,0 +1,9 @@
+package com.example.taskmanager.repository;
+
+import java.time.Instant;
+
+// Row returned by TaskRepository.findPendingDeadlines
+public interface PendingDeadline {
+    Long getId();
+    Instant getDeadline();
+}
@@ -1,11 +1,43 @@
 package com.example.taskmanager.repository;
 
+import com.example.taskmanager.dto.ProjectDto;
 import com.example.taskmanager.model.Project;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ProjectRepository extends JpaRepository<Project, Long> {
+
+    // Project listing read straight into DTOs, without managed entities
+    @Query("select new com.example.taskmanager.dto.ProjectDto(p.id, p.name, p.description, p.createdDate) from Project p"
+            + " where p.deleting = false")
+    List<ProjectDto> findAllDtos();
+
+    // Existence as the API sees it: a project being deleted is already gone
+    boolean existsByIdAndDeletingFalse(Long id);
+
+    // ETag of the project's task list: tasks_changed_at (V9) in microseconds, a primary-key lookup.
+    // Empty for unknown (or deleting) projects, so it doubles as the existence check.
+    @Query(value = "select (extract(epoch from tasks_changed_at) * 1000000)::bigint from projects"
+            + " where id = :id and not deleting", nativeQuery = true)
+    Optional<Long> findTasksVersion(@Param("id") Long id);
+
+    // First step of a deletion, committed on its own; flagging again is harmless, so a retry resumes
+    @Transactional
+    @Modifying
+    @Query("update Project p set p.deleting = true where p.id = :id")
+    int markDeleting(@Param("id") Long id);
+
+    // No entity load and no Hibernate cascade; tasks_project_fk ON DELETE CASCADE removes remaining tasks
+    @Transactional
+    @Modifying
+    @Query("delete from Project p where p.id = :id")
+    int deleteInBulk(@Param("id") Long id);
 }
\ No newline at end of file
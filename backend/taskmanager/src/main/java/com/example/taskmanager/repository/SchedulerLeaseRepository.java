@@ -0,0 +1,34 @@
+package com.example.taskmanager.repository;
+
+import com.example.taskmanager.model.SchedulerLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+@Repository
+public interface SchedulerLeaseRepository extends JpaRepository<SchedulerLease, String> {
+
+    // Takes the lease if it is free, expired or already ours; returns the owner only when we hold it.
+    // Expiry is computed with the database clock so nodes with skewed clocks agree.
+    @Transactional
+    @Query(value = """
+            INSERT INTO scheduler_leases (name, owner, expires_at)
+            VALUES (:name, :owner, now() + make_interval(secs => :ttlSeconds))
+            ON CONFLICT (name) DO UPDATE
+                SET owner = EXCLUDED.owner, expires_at = EXCLUDED.expires_at
+                WHERE scheduler_leases.expires_at < now() OR scheduler_leases.owner = EXCLUDED.owner
+            RETURNING owner
+            """, nativeQuery = true)
+    Optional<String> tryAcquire(@Param("name") String name, @Param("owner") String owner,
+                                @Param("ttlSeconds") long ttlSeconds);
+
+    @Transactional
+    @Modifying
+    @Query("delete from SchedulerLease l where l.name = :name and l.owner = :owner")
+    int release(@Param("name") String name, @Param("owner") String owner);
+}
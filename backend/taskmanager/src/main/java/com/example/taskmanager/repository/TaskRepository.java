@@ -1,14 +1,104 @@
 package com.example.taskmanager.repository;
 
+import com.example.taskmanager.dto.TaskDto;
 import com.example.taskmanager.model.Task;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface TaskRepository extends JpaRepository<Task, Long> {
-    List<Task> findByProjectId(Long projectId);
-    List<Task> findByDeadlineBeforeAndExpiredNotifiedFalse(Instant now);
+public interface TaskRepository extends JpaRepository<Task, Long>, TaskRepositoryCustom {
+
+    // Rows per JDBC round trip when streaming a project export
+    int EXPORT_FETCH_SIZE = 500;
+
+    // Read paths select straight into TaskDto: no managed entities, snapshots or project proxies.
+    // t.project.id reads the foreign key column without a join.
+    String AS_DTO = "select new com.example.taskmanager.dto.TaskDto("
+            + "t.id, t.title, t.description, t.status, t.deadline, t.project.id) ";
+
+    @Query(AS_DTO + "from Task t where t.id = :id")
+    Optional<TaskDto> findDtoById(@Param("id") Long id);
+
+    // JDBC cursor over a whole project; must be consumed inside a transaction and closed.
+    // Rows are DTOs, so nothing accumulates in the persistence context however large the project.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query(AS_DTO + "from Task t where t.project.id = :projectId order by t.id")
+    Stream<TaskDto> streamByProjectId(@Param("projectId") Long projectId);
+
+    // Flags up to 'chunk' overdue tasks in one statement and returns what was flagged.
+    // Runs in its own write transaction (query methods default to read-only).
+    // SKIP LOCKED lets concurrent nodes claim disjoint chunks instead of queueing on the same rows.
+    // Due-ness is judged by the database clock, so nodes with skewed clocks agree on it.
+    @Transactional
+    @Query(value = """
+            UPDATE tasks SET expired_notified = true
+            WHERE id IN (
+                SELECT id FROM tasks
+                WHERE deadline < now() AND expired_notified = false
+                ORDER BY deadline
+                LIMIT :chunk
+                FOR UPDATE SKIP LOCKED)
+              AND expired_notified = false
+            RETURNING id, title, project_id AS projectId, deadline
+            """, nativeQuery = true)
+    List<ExpiredTask> markExpired(@Param("chunk") int chunk);
+
+    // Timer path: flags just the given tasks if they are still pending and actually due
+    @Transactional
+    @Query(value = """
+            UPDATE tasks SET expired_notified = true
+            WHERE id IN (
+                SELECT id FROM tasks
+                WHERE id IN (:ids) AND expired_notified = false AND deadline <= now()
+                FOR UPDATE SKIP LOCKED)
+              AND expired_notified = false
+            RETURNING id, title, project_id AS projectId, deadline
+            """, nativeQuery = true)
+    List<ExpiredTask> markExpired(@Param("ids") Collection<Long> ids);
+
+    // Delta sync: everything inserted or updated in a project after the given instant
+    @Query(AS_DTO + "from Task t where t.project.id = :projectId and t.updatedAt > :since order by t.id")
+    List<TaskDto> findChangedSince(@Param("projectId") Long projectId, @Param("since") Instant since);
+
+    // Delta-sync watermark, read from the clock that stamps updated_at and deleted_at (V12)
+    @Query(value = "select clock_timestamp()", nativeQuery = true)
+    Instant findDatabaseTime();
+
+    // Project deletion: removes up to 'chunk' tasks per call, each call its own short transaction.
+    // Tombstones are recorded by the tasks trigger (V7).
+    @Transactional
+    @Modifying
+    @Query(value = """
+            DELETE FROM tasks
+            WHERE id IN (SELECT id FROM tasks WHERE project_id = :projectId LIMIT :chunk)
+            """, nativeQuery = true)
+    int deleteChunkByProjectId(@Param("projectId") Long projectId, @Param("chunk") int chunk);
+
+    // ETag of a single task; reads one column instead of loading the entity
+    @Query("select t.version from Task t where t.id = :id")
+    Optional<Long> findVersion(@Param("id") Long id);
+
+    // Pending deadlines up to the timer horizon (served by idx_tasks_pending_deadline)
+    @Query("select t.id as id, t.deadline as deadline from Task t where t.expiredNotified = false and t.deadline <= :until")
+    List<PendingDeadline> findPendingDeadlines(@Param("until") Instant until);
+
+    // The given tasks that are still pending, with their current deadlines
+    @Query("select t.id as id, t.deadline as deadline from Task t where t.expiredNotified = false and t.id in :ids")
+    List<PendingDeadline> findPendingDeadlines(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,12 @@
+package com.example.taskmanager.repository;
+
+import com.example.taskmanager.dto.TaskDto;
+import com.example.taskmanager.dto.TaskFilter;
+import org.springframework.data.domain.Slice;
+
+// Queries whose shape depends on the arguments, implemented in TaskRepositoryCustomImpl
+public interface TaskRepositoryCustom {
+
+    // Keyset page of a project's tasks ordered by id, restricted by whichever filters are set
+    Slice<TaskDto> findPage(Long projectId, long afterId, TaskFilter filter, int limit);
+}
@@ -0,0 +1,59 @@
+package com.example.taskmanager.repository;
+
+import com.example.taskmanager.dto.TaskDto;
+import com.example.taskmanager.dto.TaskFilter;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+class TaskRepositoryCustomImpl implements TaskRepositoryCustom {
+
+    private final EntityManager em;
+
+    TaskRepositoryCustomImpl(EntityManager em) {
+        this.em = em;
+    }
+
+    // Only the filters that are set go into the query. A catch-all "(:x is null or ...)" predicate
+    // cannot use an index under a generic plan, so each filter combination gets its own statement and
+    // plan: a status or expired_notified filter walks (project_id, status, id) or
+    // (project_id, expired_notified, id) in id order; anything else walks (project_id, id) (V4).
+    // Fetches limit + 1 rows to tell whether there is a next page, instead of issuing a count query.
+    @Override
+    public Slice<TaskDto> findPage(Long projectId, long afterId, TaskFilter filter, int limit) {
+        StringBuilder jpql = new StringBuilder(TaskRepository.AS_DTO)
+                .append("from Task t where t.project.id = :projectId and t.id > :afterId");
+        Map<String, Object> params = new LinkedHashMap<>();
+        params.put("projectId", projectId);
+        params.put("afterId", afterId);
+        if (filter.status() != null) {
+            jpql.append(" and t.status = :status");
+            params.put("status", filter.status());
+        }
+        if (filter.expiredNotified() != null) {
+            jpql.append(" and t.expiredNotified = :expiredNotified");
+            params.put("expiredNotified", filter.expiredNotified());
+        }
+        if (filter.deadlineFrom() != null) {
+            jpql.append(" and t.deadline >= :deadlineFrom");
+            params.put("deadlineFrom", filter.deadlineFrom());
+        }
+        if (filter.deadlineTo() != null) {
+            jpql.append(" and t.deadline < :deadlineTo");
+            params.put("deadlineTo", filter.deadlineTo());
+        }
+        jpql.append(" order by t.id");
+
+        TypedQuery<TaskDto> query = em.createQuery(jpql.toString(), TaskDto.class);
+        params.forEach(query::setParameter);
+        List<TaskDto> rows = query.setMaxResults(limit + 1).getResultList();
+        boolean hasNext = rows.size() > limit;
+        return new SliceImpl<>(hasNext ? rows.subList(0, limit) : rows, PageRequest.of(0, limit), hasNext);
+    }
+}
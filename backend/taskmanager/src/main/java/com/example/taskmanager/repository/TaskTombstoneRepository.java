@@ -0,0 +1,24 @@
+package com.example.taskmanager.repository;
+
+import com.example.taskmanager.model.TaskTombstone;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface TaskTombstoneRepository extends JpaRepository<TaskTombstone, Long> {
+
+    @Query("select t.taskId from TaskTombstone t where t.projectId = :projectId and t.deletedAt > :since order by t.taskId")
+    List<Long> findDeletedIdsSince(@Param("projectId") Long projectId, @Param("since") Instant since);
+
+    @Transactional
+    @Modifying
+    @Query("delete from TaskTombstone t where t.deletedAt < :cutoff")
+    int purgeBefore(@Param("cutoff") Instant cutoff);
+}
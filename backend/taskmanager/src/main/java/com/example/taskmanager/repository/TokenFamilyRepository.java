@@ -0,0 +1,51 @@
+package com.example.taskmanager.repository;
+
+import com.example.taskmanager.model.TokenFamily;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface TokenFamilyRepository extends JpaRepository<TokenFamily, String> {
+
+    // Moves a live family to the next generation; 0 rows means the presented token was reused, revoked or expired
+    @Transactional
+    @Modifying
+    @Query(value = """
+            UPDATE token_families SET generation = generation + 1
+            WHERE id = :id AND generation = :generation AND revoked_at IS NULL AND expires_at > now()
+            """, nativeQuery = true)
+    int rotate(@Param("id") String id, @Param("generation") int generation);
+
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE token_families SET revoked_at = now() WHERE id = :id AND revoked_at IS NULL",
+            nativeQuery = true)
+    int revoke(@Param("id") String id);
+
+    // Revokes every live family of the user and returns their ids
+    @Transactional
+    @Query(value = """
+            UPDATE token_families SET revoked_at = now()
+            WHERE username = :username AND revoked_at IS NULL AND expires_at > now()
+            RETURNING id
+            """, nativeQuery = true)
+    List<String> revokeByUsername(@Param("username") String username);
+
+    // Revoked families whose tokens could still be presented
+    @Query("select f.id from TokenFamily f where f.revokedAt >= :since and f.expiresAt > :now")
+    List<String> findRevokedSince(@Param("since") Instant since, @Param("now") Instant now);
+
+    boolean existsByIdAndRevokedAtIsNotNull(String id);
+
+    @Transactional
+    @Modifying
+    @Query("delete from TokenFamily f where f.expiresAt < :before")
+    int purgeExpiredBefore(@Param("before") Instant before);
+}
@@ -2,6 +2,8 @@ package com.example.taskmanager.repository;
 
 import com.example.taskmanager.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -10,4 +12,7 @@ import java.util.Optional;
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByUsername(String username);
     boolean existsByUsername(String username);
+
+    @Query("select u.tokenVersion from User u where u.username = :username")
+    Optional<Integer> findTokenVersion(@Param("username") String username);
 }
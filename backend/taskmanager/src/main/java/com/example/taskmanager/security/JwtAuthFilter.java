@@ -5,20 +5,31 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.*;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.List;
 
 public class JwtAuthFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwt;
     private final UserDetailsService uds;
+    private final PrincipalCache principals;
+    private final TokenRevocations revocations;
+    private final TokenVersions versions;
+    private final boolean trustRoleClaim;
 
-    public JwtAuthFilter(JwtUtil jwt, UserDetailsService uds) {
+    public JwtAuthFilter(JwtUtil jwt, UserDetailsService uds, PrincipalCache principals,
+                         TokenRevocations revocations, TokenVersions versions, boolean trustRoleClaim) {
         this.jwt = jwt;
         this.uds = uds;
+        this.principals = principals;
+        this.revocations = revocations;
+        this.versions = versions;
+        this.trustRoleClaim = trustRoleClaim;
     }
 
     @Override
@@ -28,15 +39,13 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         final String header = req.getHeader("Authorization");
         if (header != null && header.startsWith("Bearer ")) {
             final String token = header.substring(7);
-            String username = null;
 
-            try {
-                username = jwt.extractUsername(token);
-            } catch (Exception ignored) {}
-
-            if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails user = uds.loadUserByUsername(username);
-                if (jwt.isTokenValid(token, user.getUsername())) {
+            if (SecurityContextHolder.getContext().getAuthentication() == null) {
+                UserDetails user = trustRoleClaim ? fromClaims(token) : cached(token);
+                if (user == null && !trustRoleClaim) {
+                    user = verify(token);
+                }
+                if (user != null) {
                     var auth = new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
                     SecurityContextHolder.getContext().setAuthentication(auth);
                 }
@@ -44,4 +53,41 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         }
         chain.doFilter(req, res);
     }
+
+    // Same token seen before: signature and expiry were already verified, skip parsing and DB lookup.
+    // Revocation is still checked (in memory), since logout does not know which access tokens were cached.
+    private UserDetails cached(String token) {
+        PrincipalCache.Entry hit = principals.get(token);
+        if (hit == null) {
+            return null;
+        }
+        return revocations.isRevoked(hit.family()) ? null : hit.user();
+    }
+
+    private UserDetails verify(String token) {
+        // Single parse: signature, expiry and claims in one pass
+        JwtClaims claims = jwt.validate(token).orElse(null);
+        if (claims == null || claims.subject() == null) {
+            return null;
+        }
+        // In-memory Bloom check; only a (rare) hit touches the database
+        if (revocations.isRevoked(claims.family())) {
+            return null;
+        }
+        UserDetails user = uds.loadUserByUsername(claims.subject());
+        principals.put(token, user, claims.family(), claims.expiresAt());
+        return user;
+    }
+
+    // Authorities straight from the verified role claim; the version and revocation checks are in memory,
+    // so a steady-state request runs no SQL. Verified on every request so a bumped version applies at once.
+    private UserDetails fromClaims(String token) {
+        JwtClaims claims = jwt.validate(token).orElse(null);
+        if (claims == null || claims.subject() == null || claims.role() == null
+                || !versions.isCurrent(claims.subject(), claims.version())
+                || revocations.isRevoked(claims.family())) {
+            return null;
+        }
+        return new User(claims.subject(), "", List.of(new SimpleGrantedAuthority(claims.role())));
+    }
 }
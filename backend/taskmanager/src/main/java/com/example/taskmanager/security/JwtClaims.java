@@ -0,0 +1,14 @@
+package com.example.taskmanager.security;
+
+import java.time.Instant;
+
+/**
+ * Claims of a token whose signature and expiry have already been verified.
+ */
+public record JwtClaims(
+        String subject,
+        String role,
+        Instant expiresAt,
+        String family, // token family (login session) for revocation; null for tokens issued without one
+        Integer version // user's token version at issue time; null for tokens issued without one
+) {}
@@ -2,77 +2,163 @@ package com.example.taskmanager.security;
 
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.time.Instant;
 import java.util.Date;
-import java.util.function.Function;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class JwtUtil {
 
+    private static final String TYPE = "typ";
+    private static final String REFRESH = "refresh";
+    private static final String FAMILY = "fam";
+    private static final String GENERATION = "gen";
+    private static final String VERSION = "ver";
+
     private final Key key;
+    private final JwtParser parser; // immutable and thread-safe, built once
     private final long expirationMs;
+    private final Timer accessValid;
+    private final Timer accessInvalid;
+    private final Timer refreshValid;
+    private final Timer refreshInvalid;
 
     public JwtUtil(
             @Value("${app.jwt.secret}") String secret,
-            @Value("${app.jwt.expiration-ms:86400000}") long expirationMs
+            @Value("${app.jwt.expiration-ms:900000}") long expirationMs,
+            MeterRegistry registry
     ) {
         if (secret == null || secret.length() < 32) {
             throw new IllegalArgumentException("jwt.secret must be at least 32 characters long");
         }
         this.key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parserBuilder().setSigningKey(key).build();
         this.expirationMs = expirationMs;
+        this.accessValid = validationTimer(registry, "access", "valid");
+        this.accessInvalid = validationTimer(registry, "access", "invalid");
+        this.refreshValid = validationTimer(registry, "refresh", "valid");
+        this.refreshInvalid = validationTimer(registry, "refresh", "invalid");
+    }
+
+    private static Timer validationTimer(MeterRegistry registry, String type, String result) {
+        return Timer.builder("jwt.validation")
+                .description("Token parsing and signature verification")
+                .tag("type", type)
+                .tag("result", result)
+                .register(registry);
     }
 
     public String generateToken(String username, String role) {
+        return generateToken(username, role, null, null);
+    }
+
+    // Access token bound to a token family and the user's token version, so either can revoke it
+    public String generateToken(String username, String role, String family, Integer version) {
         final Date now = new Date();
         final Date exp = new Date(now.getTime() + expirationMs);
-        return Jwts.builder()
+        JwtBuilder builder = Jwts.builder()
                 .setSubject(username)
                 .claim("role", role)
                 .setIssuedAt(now)
-                .setExpiration(exp)
+                .setExpiration(exp);
+        if (family != null) {
+            builder.claim(FAMILY, family);
+        }
+        if (version != null) {
+            builder.claim(VERSION, version);
+        }
+        return builder.signWith(key, SignatureAlgorithm.HS256).compact();
+    }
+
+    public String generateRefreshToken(String username, String family, int generation, Instant expiresAt) {
+        return Jwts.builder()
+                .setSubject(username)
+                .claim(TYPE, REFRESH)
+                .claim(FAMILY, family)
+                .claim(GENERATION, generation)
+                .setIssuedAt(new Date())
+                .setExpiration(Date.from(expiresAt))
                 .signWith(key, SignatureAlgorithm.HS256)
                 .compact();
     }
 
-    public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
+    public long getExpirationMs() {
+        return expirationMs;
     }
 
-    public String extractRole(String token) {
-        return extractAllClaims(token).get("role", String.class);
+    /**
+     * Parses the token once, verifying signature and expiry in the same pass.
+     * Returns empty for malformed, tampered or expired tokens, and for refresh tokens.
+     */
+    public Optional<JwtClaims> validate(String token) {
+        long start = System.nanoTime();
+        Optional<JwtClaims> claims = parseAccess(token);
+        (claims.isPresent() ? accessValid : accessInvalid).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return claims;
     }
 
-    public boolean isTokenValid(String token, String expectedUsername) {
+    private Optional<JwtClaims> parseAccess(String token) {
         try {
-            final String username = extractUsername(token);
-            return username.equals(expectedUsername) && !isExpired(token);
+            Claims c = parser.parseClaimsJws(token).getBody();
+            if (REFRESH.equals(c.get(TYPE, String.class))) {
+                return Optional.empty();
+            }
+            return Optional.of(new JwtClaims(
+                    c.getSubject(),
+                    c.get("role", String.class),
+                    c.getExpiration() == null ? null : c.getExpiration().toInstant(),
+                    c.get(FAMILY, String.class),
+                    c.get(VERSION, Integer.class)));
         } catch (JwtException | IllegalArgumentException e) {
-            return false;
+            return Optional.empty();
         }
     }
 
-    private boolean isExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    /** Like {@link #validate} but only accepts refresh tokens. */
+    public Optional<RefreshClaims> validateRefresh(String token) {
+        long start = System.nanoTime();
+        Optional<RefreshClaims> claims = parseRefresh(token);
+        (claims.isPresent() ? refreshValid : refreshInvalid).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return claims;
     }
 
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    private Optional<RefreshClaims> parseRefresh(String token) {
+        try {
+            Claims c = parser.parseClaimsJws(token).getBody();
+            if (!REFRESH.equals(c.get(TYPE, String.class)) || c.get(FAMILY, String.class) == null) {
+                return Optional.empty();
+            }
+            return Optional.of(new RefreshClaims(
+                    c.getSubject(),
+                    c.get(FAMILY, String.class),
+                    c.get(GENERATION, Integer.class),
+                    c.getExpiration().toInstant()));
+        } catch (JwtException | IllegalArgumentException | NullPointerException e) {
+            return Optional.empty();
+        }
     }
 
-    private <T> T extractClaim(String token, Function<Claims, T> resolver) {
-        return resolver.apply(extractAllClaims(token));
+    public String extractUsername(String token) {
+        return extractAllClaims(token).getSubject();
+    }
+
+    public String extractRole(String token) {
+        return extractAllClaims(token).get("role", String.class);
+    }
+
+    public boolean isTokenValid(String token, String expectedUsername) {
+        return validate(token).map(c -> c.subject().equals(expectedUsername)).orElse(false);
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return parser.parseClaimsJws(token).getBody();
     }
 }
@@ -0,0 +1,74 @@
+package com.example.taskmanager.security;
+
+import com.example.taskmanager.web.TooManyRequestsException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-memory fixed-window limits on login attempts per username and per client IP, checked before any
+ * user lookup or password hash. Per node only; windows expire with the cache entries, so memory stays
+ * bounded by max-keys.
+ */
+@Component
+public class LoginRateLimiter {
+
+    private record Window(long startNanos, AtomicInteger attempts) {}
+
+    private final Cache<String, Window> windows;
+    private final Duration window;
+    private final int perUsername;
+    private final int perIp;
+    private final Counter rejectedUsername;
+    private final Counter rejectedIp;
+
+    public LoginRateLimiter(
+            @Value("${app.auth.rate-limit.window:1m}") Duration window,
+            @Value("${app.auth.rate-limit.per-username:10}") int perUsername,
+            @Value("${app.auth.rate-limit.per-ip:60}") int perIp,
+            @Value("${app.auth.rate-limit.max-keys:100000}") long maxKeys,
+            MeterRegistry registry
+    ) {
+        this.window = window;
+        this.perUsername = perUsername;
+        this.perIp = perIp;
+        this.windows = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterWrite(window)
+                .build();
+        this.rejectedUsername = Counter.builder("auth.login.rejected").tag("reason", "rate_limited_username")
+                .register(registry);
+        this.rejectedIp = Counter.builder("auth.login.rejected").tag("reason", "rate_limited_ip")
+                .register(registry);
+    }
+
+    // Counts the attempt against both keys; throws 429 with Retry-After once either is over its limit
+    public void check(String username, String ip) {
+        long retryIp = consume("ip:" + ip, perIp);
+        if (retryIp > 0) {
+            rejectedIp.increment();
+            throw new TooManyRequestsException("Too many login attempts from this address", retryIp);
+        }
+        long retryUser = consume("user:" + username.toLowerCase(), perUsername);
+        if (retryUser > 0) {
+            rejectedUsername.increment();
+            throw new TooManyRequestsException("Too many login attempts for this user", retryUser);
+        }
+    }
+
+    // 0 when allowed, otherwise seconds until the window resets
+    private long consume(String key, int limit) {
+        Window w = windows.get(key, k -> new Window(System.nanoTime(), new AtomicInteger()));
+        if (w.attempts().incrementAndGet() <= limit) {
+            return 0;
+        }
+        long left = window.toNanos() - (System.nanoTime() - w.startNanos());
+        return Math.max(1, Duration.ofNanos(left).toSeconds() + 1);
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.taskmanager.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Bounded cache of principals resolved from already signature-verified JWTs.
+ * Entries are keyed by a SHA-256 hash of the raw token and expire together with the token,
+ * so a hit means the exact same token was verified before and is still within its lifetime. The token's
+ * family is kept alongside so callers can still reject a hit whose family was revoked since (logout).
+ */
+@Component
+public class PrincipalCache {
+
+    public record Entry(UserDetails user, String family, Instant expiresAt) {}
+
+    private final Cache<String, Entry> cache;
+
+    public PrincipalCache(
+            @Value("${app.jwt.principal-cache.max-size:10000}") long maxSize,
+            MeterRegistry registry
+    ) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<String, Entry>() {
+                    @Override
+                    public long expireAfterCreate(String key, Entry value, long currentTime) {
+                        return Math.max(0, Duration.between(Instant.now(), value.expiresAt()).toNanos());
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Entry value, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, value, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Entry value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(registry, cache, "jwt.principals");
+    }
+
+    public Entry get(String token) {
+        return cache.getIfPresent(hash(token));
+    }
+
+    public void put(String token, UserDetails user, String family, Instant expiresAt) {
+        if (expiresAt != null && expiresAt.isAfter(Instant.now())) {
+            cache.put(hash(token), new Entry(user, family, expiresAt));
+        }
+    }
+
+    // Drop every cached token of the given user (password change, deletion, role change)
+    public void evictUser(String username) {
+        cache.asMap().values().removeIf(e -> e.user().getUsername().equals(username));
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.taskmanager.security;
+
+import java.time.Instant;
+
+/**
+ * Claims of a verified refresh token: the session (token family) it belongs to and its position in the
+ * family's rotation.
+ */
+public record RefreshClaims(
+        String subject,
+        String family,
+        int generation,
+        Instant expiresAt
+) {}
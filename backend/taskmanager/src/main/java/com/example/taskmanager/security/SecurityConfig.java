@@ -9,14 +9,18 @@ import org.springframework.security.config.annotation.method.configuration.Enabl
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.userdetails.UserDetailsService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
+import jakarta.servlet.DispatcherType;
 import jakarta.servlet.http.HttpServletResponse;
 import java.nio.charset.StandardCharsets;
 import java.time.Instant;
+import java.time.Duration;
 import java.util.Map;
 
 @Configuration
@@ -25,17 +29,31 @@ public class SecurityConfig {
 
     private final ObjectMapper mapper = new ObjectMapper();
 
+    // trust-role-claim: authorize from the token's role and token version instead of loading the user
     @Bean
-    public JwtAuthFilter jwtAuthFilter(JwtUtil jwtUtil, UserDetailsService uds) {
-        return new JwtAuthFilter(jwtUtil, uds);
+    public JwtAuthFilter jwtAuthFilter(JwtUtil jwtUtil, UserDetailsService uds, PrincipalCache principals,
+                                       TokenRevocations revocations, TokenVersions versions,
+                                       @Value("${app.jwt.trust-role-claim:false}") boolean trustRoleClaim) {
+        return new JwtAuthFilter(jwtUtil, uds, principals, revocations, versions, trustRoleClaim);
     }
 
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http, JwtAuthFilter jwtFilter) throws Exception {
+    public SecurityFilterChain filterChain(HttpSecurity http, JwtAuthFilter jwtFilter,
+                                           @Value("${server.port:8080}") int serverPort,
+                                           @Value("${management.server.port:-1}") int managementPort) throws Exception {
+        // Actuator on its own port shares this chain; that port is kept off the public network (see README),
+        // so a scraper can read metrics there without a bearer token that expires every few minutes
+        boolean separateManagementPort = managementPort > 0 && managementPort != serverPort;
         http.csrf(csrf -> csrf.disable())
                 .sessionManagement(sm -> sm.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
-                        .requestMatchers("/login", "/register",
+                        // Streaming exports finish on an async dispatch, which the JWT filter does not see again;
+                        // the request was authorized when it started
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+                        .requestMatchers(req -> separateManagementPort && req.getLocalPort() == managementPort).permitAll()
+                        // On the application port metrics reveal traffic, latencies and internals; health and info stay public
+                        .requestMatchers("/actuator/prometheus", "/actuator/metrics", "/actuator/metrics/**").hasRole("ADMIN")
+                        .requestMatchers("/login", "/register", "/token/refresh", "/token/revoke",
                                 "/v3/api-docs/**", "/swagger-ui/**", "/swagger-ui.html",
                                 "/actuator/**", "/ws/**", "/stomp/**").permitAll()
                         // Users
@@ -44,7 +62,7 @@ public class SecurityConfig {
                         .requestMatchers(HttpMethod.DELETE, "/users/**").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.PUT, "/users/**").hasRole("ADMIN")
                         // Tasks within projects (specific rules BEFORE generic projects rules)
-                        .requestMatchers(HttpMethod.POST, "/projects/*/tasks").hasAnyRole("ADMIN", "MODERATOR")
+                        .requestMatchers(HttpMethod.POST, "/projects/*/tasks", "/projects/*/tasks:batch").hasAnyRole("ADMIN", "MODERATOR")
                         .requestMatchers(HttpMethod.GET, "/projects/*/tasks").authenticated()
                         // Projects
                         .requestMatchers(HttpMethod.POST, "/projects").hasAnyRole("ADMIN", "MODERATOR")
@@ -78,6 +96,13 @@ public class SecurityConfig {
         ));
     }
 
+    // BCrypt on its own bounded pool (see BoundedPasswordEncoder); threads 0 = one per CPU core
     @Bean
-    public PasswordEncoder passwordEncoder() { return new BCryptPasswordEncoder(); }
+    public PasswordEncoder passwordEncoder(@Value("${app.auth.hashing.threads:0}") int threads,
+                                           @Value("${app.auth.hashing.queue:64}") int queue,
+                                           @Value("${app.auth.hashing.timeout:5s}") Duration timeout,
+                                           MeterRegistry registry) {
+        int size = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(), size, queue, timeout, registry);
+    }
 }
@@ -0,0 +1,102 @@
+package com.example.taskmanager.security;
+
+import com.example.taskmanager.repository.TokenFamilyRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Revoked token families, answered from an in-memory Bloom filter in front of the token_families table.
+ * A miss (the common case) costs no SQL; a hit is confirmed against the table, so false positives only
+ * cost a lookup. Each node pulls revocations made elsewhere on a fixed interval.
+ */
+@Component
+public class TokenRevocations {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenRevocations.class);
+
+    private final TokenFamilyRepository families;
+    private final int expectedRevocations;
+    private final double falsePositiveRate;
+    private final Duration syncInterval;
+    private final Counter revokedHits;
+    private final Counter falsePositives;
+
+    private volatile BloomFilter filter;
+    private final AtomicInteger added = new AtomicInteger();
+    private Instant syncedUpTo; // only touched by the scheduler thread
+
+    public TokenRevocations(
+            TokenFamilyRepository families,
+            @Value("${app.jwt.revocations.expected:100000}") int expectedRevocations,
+            @Value("${app.jwt.revocations.false-positive-rate:0.01}") double falsePositiveRate,
+            @Value("${app.jwt.revocations.sync-interval:10s}") Duration syncInterval,
+            MeterRegistry registry
+    ) {
+        this.families = families;
+        this.expectedRevocations = expectedRevocations;
+        this.falsePositiveRate = falsePositiveRate;
+        this.syncInterval = syncInterval;
+        this.filter = new BloomFilter(expectedRevocations, falsePositiveRate);
+        this.revokedHits = Counter.builder("auth.token.revocation.checks").tag("result", "revoked").register(registry);
+        this.falsePositives = Counter.builder("auth.token.revocation.checks").tag("result", "false_positive")
+                .register(registry);
+    }
+
+    public boolean isRevoked(String family) {
+        if (family == null || !filter.mightContain(family)) {
+            return false;
+        }
+        boolean revoked = families.existsByIdAndRevokedAtIsNotNull(family);
+        (revoked ? revokedHits : falsePositives).increment();
+        return revoked;
+    }
+
+    public void revoke(String family) {
+        families.revoke(family);
+        add(List.of(family));
+    }
+
+    public void revokeUser(String username) {
+        add(families.revokeByUsername(username));
+    }
+
+    // Pulls families revoked on other nodes; overlaps the previous window so late commits are not missed.
+    // Rebuilds from scratch when the filter is over capacity, which also drops families that have expired.
+    @Scheduled(fixedDelayString = "${app.jwt.revocations.sync-interval:10s}")
+    public void sync() {
+        Instant now = Instant.now();
+        if (syncedUpTo == null || added.get() > expectedRevocations) {
+            BloomFilter fresh = new BloomFilter(expectedRevocations, falsePositiveRate);
+            List<String> revoked = families.findRevokedSince(Instant.EPOCH, now);
+            revoked.forEach(fresh::put);
+            filter = fresh;
+            added.set(revoked.size());
+            log.debug("Loaded {} revoked token families", revoked.size());
+        } else {
+            add(families.findRevokedSince(syncedUpTo.minus(syncInterval.multipliedBy(2)), now));
+        }
+        syncedUpTo = now;
+    }
+
+    @Scheduled(fixedDelayString = "${app.jwt.revocations.purge-interval:1h}",
+            initialDelayString = "${app.jwt.revocations.purge-interval:1h}")
+    public void purgeExpired() {
+        families.purgeExpiredBefore(Instant.now());
+    }
+
+    private void add(List<String> ids) {
+        BloomFilter f = filter;
+        ids.forEach(f::put);
+        added.addAndGet(ids.size());
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.taskmanager.security;
+
+import com.example.taskmanager.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Current token version per user, so a verified access token can be checked without a query.
+ * Entries are reloaded in the background once older than refresh-after (readers keep getting the
+ * cached value meanwhile), which bounds how long a bump made on another node goes unnoticed here.
+ * Changes made on this node are applied immediately.
+ */
+@Component
+public class TokenVersions {
+
+    // Cached for users that no longer exist; matches no token
+    static final int GONE = -1;
+
+    private final UserRepository users;
+    private final LoadingCache<String, Integer> cache;
+
+    public TokenVersions(
+            UserRepository users,
+            @Value("${app.jwt.token-versions.max-size:10000}") long maxSize,
+            @Value("${app.jwt.token-versions.refresh-after:30s}") Duration refreshAfter,
+            MeterRegistry registry
+    ) {
+        this.users = users;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .refreshAfterWrite(refreshAfter)
+                .recordStats()
+                .build(this::load);
+        CaffeineCacheMetrics.monitor(registry, cache, "jwt.token.versions");
+    }
+
+    public boolean isCurrent(String username, Integer version) {
+        // Unbox both sides: Integer == Integer compares references, which only agree inside the small-value cache
+        return version != null && version >= 0 && version.intValue() == cache.get(username).intValue();
+    }
+
+    // Fresh read for token issuance (login, refresh), which should never embed a stale version
+    public int reload(String username) {
+        int version = load(username);
+        cache.put(username, version);
+        return version;
+    }
+
+    public void changed(String username, int version) {
+        cache.put(username, version);
+    }
+
+    public void removed(String username) {
+        cache.put(username, GONE);
+    }
+
+    private int load(String username) {
+        return users.findTokenVersion(username).orElse(GONE);
+    }
+}
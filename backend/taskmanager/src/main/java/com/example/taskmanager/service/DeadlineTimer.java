@@ -0,0 +1,108 @@
+package com.example.taskmanager.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+/**
+ * In-memory deadline engine: a single thread waits on a {@link DelayQueue} and hands every due id to
+ * the callback together with its deadline. Rescheduling or cancelling only replaces the entry in
+ * {@code pending}; superseded queue entries are skipped when they come due, which keeps updates O(log n).
+ */
+class DeadlineTimer {
+
+    private static final Logger log = LoggerFactory.getLogger(DeadlineTimer.class);
+
+    private record Entry(long id, Instant deadline) implements Delayed {
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(Duration.between(Instant.now(), deadline));
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return deadline.compareTo(((Entry) other).deadline);
+        }
+    }
+
+    private final DelayQueue<Entry> queue = new DelayQueue<>();
+    private final Map<Long, Entry> pending = new ConcurrentHashMap<>();
+    private final BiConsumer<List<Long>, List<Instant>> onDue;
+    private volatile Thread worker;
+
+    DeadlineTimer(BiConsumer<List<Long>, List<Instant>> onDue) {
+        this.onDue = onDue;
+    }
+
+    void schedule(long id, Instant deadline) {
+        Entry e = new Entry(id, deadline);
+        pending.put(id, e);
+        queue.put(e);
+    }
+
+    void cancel(long id) {
+        pending.remove(id);
+    }
+
+    boolean isScheduled(long id) {
+        return pending.containsKey(id);
+    }
+
+    int size() {
+        return pending.size();
+    }
+
+    synchronized void start(ThreadFactory threads) {
+        if (worker == null) {
+            worker = threads.newThread(this::run);
+            worker.start();
+        }
+    }
+
+    synchronized void stop() {
+        if (worker != null) {
+            worker.interrupt();
+            worker = null;
+        }
+    }
+
+    private void run() {
+        List<Entry> due = new ArrayList<>();
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                due.add(queue.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            queue.drainTo(due); // everything else already due fires in the same batch
+            List<Long> ids = new ArrayList<>(due.size());
+            List<Instant> deadlines = new ArrayList<>(due.size());
+            for (Entry e : due) {
+                if (pending.remove(e.id(), e)) { // skip cancelled or superseded entries
+                    ids.add(e.id());
+                    deadlines.add(e.deadline());
+                }
+            }
+            due.clear();
+            if (!ids.isEmpty()) {
+                try {
+                    onDue.accept(ids, deadlines);
+                } catch (RuntimeException ex) {
+                    // keep the timer alive; the periodic reconciliation sweep catches anything missed
+                    log.warn("Deadline callback failed for {} task(s)", ids.size(), ex);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.taskmanager.service;
+
+import com.example.taskmanager.repository.SchedulerLeaseRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Database-backed leadership for jobs that must run on a single replica at a time.
+ * A holder renews by acquiring again before {@code ttl} runs out; if it dies the lease lapses and
+ * the next replica to ask takes over.
+ */
+@Component
+public class LeaderLease {
+
+    private final SchedulerLeaseRepository leases;
+    private final String owner;
+    private final Duration ttl;
+
+    @Autowired
+    public LeaderLease(SchedulerLeaseRepository leases, @Value("${app.scheduler.lease-ttl:11m}") Duration ttl) {
+        this(leases, defaultOwner(), ttl);
+    }
+
+    LeaderLease(SchedulerLeaseRepository leases, String owner, Duration ttl) {
+        this.leases = leases;
+        this.owner = owner;
+        this.ttl = ttl;
+    }
+
+    public boolean tryAcquire(String name) {
+        return leases.tryAcquire(name, owner, ttl.toSeconds()).isPresent();
+    }
+
+    public void release(String name) {
+        leases.release(name, owner);
+    }
+
+    public String owner() {
+        return owner;
+    }
+
+    private static String defaultOwner() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "unknown";
+        }
+        return host + "/" + UUID.randomUUID();
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.taskmanager.service;
+
+import com.example.taskmanager.dto.ProjectDto;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Bounded in-process cache of projects, read through by {@link ProjectService}.
+ * Project existence is remembered per id (only positive answers); ids are evicted locally on delete
+ * and otherwise live for the TTL, which bounds how long another replica may still see a deleted
+ * project. The listing is a single entry, replaced locally on create and delete; changes made on other
+ * replicas show up once it expires after {@code list-ttl}, so a cached request costs no SQL at all.
+ */
+@Component
+public class ProjectCache {
+
+    private final Cache<Long, Boolean> existing;
+    private final Cache<Boolean, List<ProjectDto>> lists;
+
+    public ProjectCache(
+            @Value("${app.projects.cache.max-size:10000}") long maxSize,
+            @Value("${app.projects.cache.ttl:5m}") Duration ttl,
+            @Value("${app.projects.cache.list-ttl:30s}") Duration listTtl,
+            MeterRegistry registry
+    ) {
+        this.existing = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.lists = Caffeine.newBuilder()
+                .maximumSize(1)
+                .expireAfterWrite(listTtl)
+                .recordStats()
+                .build();
+        monitor(registry, existing, "projects");
+        monitor(registry, lists, "projects.list");
+    }
+
+    // Misses ask the database; a "no" is not cached so a project created elsewhere shows up at once
+    public boolean exists(Long id, Predicate<Long> lookup) {
+        return existing.get(id, key -> lookup.test(key) ? Boolean.TRUE : null) != null;
+    }
+
+    public List<ProjectDto> list(Supplier<List<ProjectDto>> loader) {
+        return lists.get(Boolean.TRUE, k -> {
+            List<ProjectDto> all = List.copyOf(loader.get());
+            all.forEach(p -> existing.put(p.id(), Boolean.TRUE));
+            return all;
+        });
+    }
+
+    public void put(ProjectDto project) {
+        existing.put(project.id(), Boolean.TRUE);
+        lists.invalidateAll();
+    }
+
+    public void evict(Long id) {
+        existing.invalidate(id);
+        lists.invalidateAll();
+    }
+
+    // cache.gets/puts/evictions plus a ready-made hit ratio under /actuator/metrics
+    private static void monitor(MeterRegistry registry, Cache<?, ?> cache, String name) {
+        CaffeineCacheMetrics.monitor(registry, cache, name);
+        Gauge.builder("cache.hit.ratio", cache, c -> c.stats().hitRate())
+                .tag("cache", name)
+                .description("Share of lookups served from the cache since startup")
+                .register(registry);
+    }
+}
@@ -5,43 +5,142 @@ import com.example.taskmanager.dto.ProjectDto;
 import com.example.taskmanager.mapper.ProjectMapper;
 import com.example.taskmanager.model.Project;
 import com.example.taskmanager.repository.ProjectRepository;
+import com.example.taskmanager.repository.TaskRepository;
+import com.example.taskmanager.util.AfterCommit;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Service
+@Timed("app.service")
 public class ProjectService {
 
+    private static final Logger log = LoggerFactory.getLogger(ProjectService.class);
+
     private final ProjectRepository projects;
+    private final TaskRepository tasks;
     private final ProjectMapper mapper;
+    private final ProjectCache cache;
+    private final TaskEventPublisher events;
+    private final int deleteChunkSize;
+    private final Counter tasksRemoved;
+    private final Counter completed;
+    private final Counter failed;
+    private final AtomicInteger active = new AtomicInteger();
 
-    public ProjectService(ProjectRepository projects, ProjectMapper mapper) {
+    public ProjectService(ProjectRepository projects, TaskRepository tasks, ProjectMapper mapper, ProjectCache cache,
+                          TaskEventPublisher events, MeterRegistry registry,
+                          @Value("${app.projects.delete.chunk-size:5000}") int deleteChunkSize) {
         this.projects = projects;
+        this.tasks = tasks;
         this.mapper = mapper;
+        this.cache = cache;
+        this.events = events;
+        this.deleteChunkSize = deleteChunkSize;
+        // Progress of long deletions: the task counter moves with every committed chunk
+        this.tasksRemoved = Counter.builder("projects.delete.tasks")
+                .description("Tasks removed by project deletions, counted per committed chunk")
+                .register(registry);
+        this.completed = Counter.builder("projects.deletions").tag("outcome", "completed")
+                .description("Project deletions by outcome; a failed one stays flagged until deleted again")
+                .register(registry);
+        this.failed = Counter.builder("projects.deletions").tag("outcome", "failed").register(registry);
+        Gauge.builder("projects.deletions.active", active, AtomicInteger::get)
+                .description("Project deletions in progress on this node")
+                .register(registry);
     }
 
-    // Return all projects for any authenticated user (visibility widened per request)
+    // Return all projects for any authenticated user (visibility widened per request).
+    // Served from cache until a local create/delete or the list TTL; only a miss queries the database.
+    // Read-only transaction: Hibernate runs it with flush mode MANUAL and skips dirty checking.
+    @Transactional(readOnly = true)
     public List<ProjectDto> findAll() {
-        return projects.findAll().stream().map(mapper::toDto).collect(Collectors.toList());
+        return cache.list(projects::findAllDtos);
+    }
+
+    // Moves with every write to the project's tasks; 404 for unknown projects
+    @Transactional(readOnly = true)
+    public long tasksVersion(Long id) {
+        return projects.findTasksVersion(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Project not found"));
     }
 
     public ProjectDto create(ProjectCreateDto dto) {
         Project entity = mapper.toEntity(dto);
         Project saved = projects.save(entity);
-        return mapper.toDto(saved);
+        ProjectDto created = mapper.toDto(saved);
+        AfterCommit.run(() -> cache.put(created));
+        return created;
+    }
+
+    // Cached existence check; a miss costs a count on the primary key, never a full row
+    public void requireExists(Long id) {
+        if (!cache.exists(id, projects::existsByIdAndDeletingFalse)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Project not found");
+        }
     }
 
+    // Uninitialized proxy, enough to set a foreign key. If the project disappears after the check
+    // (e.g. deleted on another replica) tasks_project_fk rejects the insert; see forget(id).
     public Project getOr404(Long id) {
-        return projects.findById(id)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Project not found"));
+        requireExists(id);
+        return projects.getReferenceById(id);
     }
 
+    // Drop a cached project that the database no longer has
+    public void forget(Long id) {
+        cache.evict(id);
+    }
+
+    // Tasks are removed in bulk chunks, each in its own short transaction, so even a huge project is
+    // never loaded into the persistence context nor held in one long transaction. The project is flagged
+    // first, which hides it at once; if a chunk fails it stays hidden and deleting it again resumes.
+    // The project row goes last; the FK cascade covers tasks inserted meanwhile. Subscribers get a single event.
     public void delete(Long id) {
-        Project p = projects.findById(id)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Project not found"));
-        projects.delete(p); // cascade removes tasks due to orphanRemoval = true
+        int flagged = projects.markDeleting(id);
+        cache.evict(id);
+        if (flagged == 0) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Project not found");
+        }
+        long removed = 0;
+        int deleted;
+        active.incrementAndGet();
+        try {
+            int n;
+            do {
+                n = tasks.deleteChunkByProjectId(id, deleteChunkSize);
+                removed += n;
+                tasksRemoved.increment(n);
+                if (n == deleteChunkSize) {
+                    log.info("Deleting project {}: {} tasks removed so far", id, removed);
+                }
+            } while (n == deleteChunkSize);
+            deleted = projects.deleteInBulk(id);
+        } catch (RuntimeException e) {
+            failed.increment();
+            log.warn("Deleting project {} stopped after {} tasks; it stays hidden until deleted again", id, removed);
+            throw e;
+        } finally {
+            active.decrementAndGet();
+        }
+        if (deleted == 0) {
+            // Finished meanwhile by a concurrent request
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Project not found");
+        }
+        completed.increment();
+        log.info("Deleted project {} with {} tasks", id, removed);
+        events.publish(Map.of("action", "projectDeleted", "projectId", id), TaskEventPublisher.projectTopic(id));
     }
 }
@@ -0,0 +1,70 @@
+package com.example.taskmanager.service;
+
+import com.example.taskmanager.config.PrimaryRead;
+import com.example.taskmanager.dto.TaskChanges;
+import com.example.taskmanager.dto.TaskDto;
+import com.example.taskmanager.repository.TaskRepository;
+import com.example.taskmanager.repository.TaskTombstoneRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Delta sync for reconnecting clients. Rows are matched on {@code updated_at} and tombstones on
+ * {@code deleted_at}; both, and the watermark handed out, come from the database clock (V12), so JVM clock
+ * skew between nodes does not matter. A row is stamped before its transaction commits, so every query
+ * reaches back {@code overlap} before the watermark to pick up transactions that committed late; clients
+ * apply changes idempotently, so the repeats are harmless. Always served by the primary: a replica's clock
+ * runs ahead of what it has replayed, so a lag longer than the overlap would lose changes for good.
+ */
+@Service
+public class TaskChangeService {
+
+    private final TaskRepository tasks;
+    private final TaskTombstoneRepository tombstones;
+    private final ProjectService projects;
+    private final Duration overlap;
+    private final Duration retention;
+
+    public TaskChangeService(TaskRepository tasks, TaskTombstoneRepository tombstones, ProjectService projects,
+                             @Value("${app.tasks.changes.overlap:5s}") Duration overlap,
+                             @Value("${app.tasks.changes.retention:7d}") Duration retention) {
+        this.tasks = tasks;
+        this.tombstones = tombstones;
+        this.projects = projects;
+        this.overlap = overlap;
+        this.retention = retention;
+    }
+
+    @PrimaryRead
+    @Transactional(readOnly = true)
+    public TaskChanges changesSince(Long projectId, Instant since) {
+        projects.requireExists(projectId);
+        Instant watermark = tasks.findDatabaseTime();
+        // Deletes older than the retention are gone, so the client cannot be brought up to date incrementally
+        if (since.isBefore(watermark.minus(retention).plus(overlap))) {
+            throw new ResponseStatusException(HttpStatus.GONE, "Watermark is too old; reload the full task list");
+        }
+        // Not one we handed out: changes stamped before it would be skipped
+        if (since.isAfter(watermark.plus(overlap))) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Watermark is in the future");
+        }
+        Instant from = since.minus(overlap);
+        List<TaskDto> changed = tasks.findChangedSince(projectId, from);
+        List<Long> deleted = tombstones.findDeletedIdsSince(projectId, from);
+        return new TaskChanges(changed, deleted, watermark);
+    }
+
+    @Scheduled(fixedDelayString = "${app.tasks.changes.purge-interval:1h}",
+            initialDelayString = "${app.tasks.changes.purge-interval:1h}")
+    public void purgeTombstones() {
+        tombstones.purgeBefore(Instant.now().minus(retention));
+    }
+}
@@ -1,43 +1,157 @@
 package com.example.taskmanager.service;
 
-import com.example.taskmanager.model.Task;
+import com.example.taskmanager.repository.ExpiredTask;
+import com.example.taskmanager.repository.PendingDeadline;
 import com.example.taskmanager.repository.TaskRepository;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
 import java.time.Instant;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
+/**
+ * Fires task expiry notifications. Deadlines within {@code horizon} are held in an in-memory
+ * {@link DeadlineTimer} and fire within milliseconds; the periodic DB sweep only reconciles what the
+ * timer could not know about (restarts, writes on other nodes, deadlines beyond the horizon).
+ * <p>
+ * With several replicas the sweep runs only on the holder of the {@value #LEASE} lease, while timers fire
+ * everywhere; the expiry UPDATEs skip rows locked by another node, so each task is notified exactly once.
+ */
 @Component
 public class TaskDeadlineScheduler {
 
+    static final String LEASE = "task-expiry-sweep";
+
+    // Smallest re-arm delay when the database clock has not reached a deadline the JVM clock has
+    static final Duration MIN_RETRY = Duration.ofMillis(50);
+
     private final TaskRepository tasks;
-    private final SimpMessagingTemplate broker;
+    private final LeaderLease lease;
+    private final TaskEventPublisher events;
+    private final int chunkSize;
+    private final Duration horizon;
+    private final DeadlineTimer timer;
+    private final Timer fireLag;
 
-    public TaskDeadlineScheduler(TaskRepository tasks, SimpMessagingTemplate broker) {
+    public TaskDeadlineScheduler(TaskRepository tasks, LeaderLease lease, TaskEventPublisher events,
+                                 MeterRegistry registry,
+                                 @Value("${app.tasks.expiry.chunk-size:500}") int chunkSize,
+                                 @Value("${app.tasks.expiry.horizon:10m}") Duration horizon) {
         this.tasks = tasks;
-        this.broker = broker;
+        this.lease = lease;
+        this.events = events;
+        this.chunkSize = chunkSize;
+        this.horizon = horizon;
+        this.timer = new DeadlineTimer(this::fire);
+        this.fireLag = Timer.builder("tasks.deadline.fire.lag")
+                .description("Delay between a task deadline and its expiry notification")
+                .register(registry);
+        Gauge.builder("tasks.deadline.timer.depth", timer, DeadlineTimer::size)
+                .description("Deadlines currently held by the in-memory timer")
+                .register(registry);
+    }
+
+    // Keep the timer in step with task writes; deadlines beyond the horizon are left to reconciliation
+    public void track(Long taskId, Instant deadline) {
+        if (deadline != null && deadline.isBefore(Instant.now().plus(horizon))) {
+            timer.schedule(taskId, deadline);
+        } else {
+            timer.cancel(taskId);
+        }
+    }
+
+    public void cancel(Long taskId) {
+        timer.cancel(taskId);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        timer.start(r -> Thread.ofPlatform().daemon().name("deadline-timer").unstarted(r));
+        notifyExpiredTasks();
     }
 
-    // Run every minute to check for newly expired tasks
-    @Scheduled(fixedDelay = 60_000)
+    @PreDestroy
+    public void stop() {
+        timer.stop();
+        // Hand the sweep over right away instead of waiting for the lease to lapse
+        lease.release(LEASE);
+    }
+
+    // Reconciliation safety net: flag anything overdue the timer missed, then reload the horizon.
+    // Acquiring also renews, so the leader keeps the lease as long as it keeps sweeping.
+    @Scheduled(fixedDelayString = "${app.tasks.expiry.reconcile-interval:5m}",
+            initialDelayString = "${app.tasks.expiry.reconcile-interval:5m}")
     public void notifyExpiredTasks() {
-        List<Task> due = tasks.findByDeadlineBeforeAndExpiredNotifiedFalse(Instant.now());
-        for (Task t : due) {
-            t.setExpiredNotified(true);
-            tasks.save(t);
-            Map<String, Object> payload = new HashMap<>();
-            payload.put("action", "expired");
-            payload.put("task", t.getTitle());
-            payload.put("projectId", t.getProject().getId());
-            payload.put("deadline", t.getDeadline());
-            // Broadcast to project-specific topic
-            broker.convertAndSend("/topic/projects/" + t.getProject().getId() + "/tasks", payload);
-            // Also broadcast to global topic so everyone gets expiration notifications
-            broker.convertAndSend("/topic/tasks", payload);
+        if (!lease.tryAcquire(LEASE)) {
+            return;
+        }
+        List<ExpiredTask> flagged;
+        do {
+            // One UPDATE ... RETURNING per chunk, each committed before its notifications go out
+            flagged = tasks.markExpired(chunkSize);
+            flagged.forEach(this::broadcast);
+        } while (flagged.size() == chunkSize);
+
+        for (PendingDeadline d : tasks.findPendingDeadlines(Instant.now().plus(horizon))) {
+            timer.schedule(d.getId(), d.getDeadline());
+        }
+    }
+
+    private void fire(List<Long> ids, List<Instant> deadlines) {
+        Instant now = Instant.now();
+        for (Instant deadline : deadlines) {
+            fireLag.record(Duration.between(deadline, now));
+        }
+        // Only rows still pending and due by the database clock are flagged, so stale timers and other
+        // nodes are harmless
+        Set<Long> missed = new HashSet<>(ids);
+        for (ExpiredTask t : tasks.markExpired(ids)) {
+            missed.remove(t.getId());
+            broadcast(t);
+        }
+        if (!missed.isEmpty()) {
+            rearm(missed);
         }
     }
+
+    // The timer fired by the JVM clock, but the database clock is behind and the rows were not due yet.
+    // Re-arm them for when the database clock gets there instead of leaving them to the next sweep.
+    // Rows that were due but locked are left alone: another node is flagging them, or a write re-tracks them.
+    private void rearm(Collection<Long> ids) {
+        List<PendingDeadline> pending = tasks.findPendingDeadlines(ids);
+        if (pending.isEmpty()) {
+            return;
+        }
+        Instant dbNow = tasks.findDatabaseTime();
+        Instant now = Instant.now();
+        for (PendingDeadline d : pending) {
+            Duration ahead = Duration.between(dbNow, d.getDeadline());
+            if (ahead.isPositive() && !timer.isScheduled(d.getId())) {
+                timer.schedule(d.getId(), now.plus(ahead.compareTo(MIN_RETRY) < 0 ? MIN_RETRY : ahead));
+            }
+        }
+    }
+
+    private void broadcast(ExpiredTask t) {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("action", "expired");
+        payload.put("task", t.getTitle());
+        payload.put("projectId", t.getProjectId());
+        payload.put("deadline", t.getDeadline());
+        // Project topic plus the global one so everyone gets expiration notifications
+        events.publish(payload, TaskEventPublisher.projectTopic(t.getProjectId()), TaskEventPublisher.ALL_TASKS);
+    }
 }
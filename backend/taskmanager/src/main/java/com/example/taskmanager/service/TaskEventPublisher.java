@@ -0,0 +1,190 @@
+package com.example.taskmanager.service;
+
+import com.example.taskmanager.util.AfterCommit;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Asynchronous WebSocket fan-out for task events. Events are queued only after the publishing transaction
+ * commits; a single worker then coalesces everything sent to the same destination within {@code window}
+ * into one STOMP frame (a JSON array when there is more than one event). Each event is serialized once,
+ * however many destinations it goes to. The queue is bounded: if the broker stalls long enough to fill it,
+ * further events are dropped and counted rather than held in memory.
+ */
+@Component
+public class TaskEventPublisher {
+
+    public static final String ALL_TASKS = "/topic/tasks";
+
+    private static final Logger log = LoggerFactory.getLogger(TaskEventPublisher.class);
+
+    private record Event(Object payload, String[] destinations, long enqueuedAt) {}
+
+    private final SimpMessagingTemplate broker;
+    private final ObjectMapper json;
+    private final long windowNanos;
+    private final BlockingQueue<Event> queue;
+    private final Counter dropped;
+    private final DistributionSummary batchSize;
+    private final Timer latency;
+    private Thread worker;
+
+    public TaskEventPublisher(SimpMessagingTemplate broker, ObjectMapper json, MeterRegistry registry,
+                              @Value("${app.websocket.batch-window:50ms}") Duration window,
+                              @Value("${app.websocket.queue-capacity:10000}") int capacity) {
+        this.broker = broker;
+        this.json = json;
+        this.windowNanos = window.toNanos();
+        this.queue = new LinkedBlockingQueue<>(capacity);
+        Gauge.builder("tasks.events.queue.depth", queue, Collection::size)
+                .description("Committed task events waiting to be broadcast")
+                .register(registry);
+        this.dropped = Counter.builder("tasks.events.dropped")
+                .description("Committed task events discarded because the broadcast queue was full")
+                .register(registry);
+        this.batchSize = DistributionSummary.builder("tasks.events.batch.size")
+                .description("Events coalesced into one WebSocket frame")
+                .register(registry);
+        this.latency = Timer.builder("tasks.events.publish.latency")
+                .description("Time from commit to the frame being handed to the broker")
+                .register(registry);
+    }
+
+    public static String projectTopic(Long projectId) {
+        return "/topic/projects/" + projectId + "/tasks";
+    }
+
+    public void publish(Object payload, String... destinations) {
+        AfterCommit.run(() -> enqueue(new Event(payload, destinations, System.nanoTime())));
+    }
+
+    private void enqueue(Event event) {
+        // Never block the committing thread on a stalled broker; clients recover missed events via delta sync
+        if (!queue.offer(event)) {
+            dropped.increment();
+            log.warn("Task event queue full ({} events); dropping event for {}", queue.size(), event.destinations());
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        worker = Thread.ofPlatform().daemon().name("task-events").start(this::run);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        worker.interrupt();
+        worker.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    private void run() {
+        List<Event> batch = new ArrayList<>();
+        try {
+            while (true) {
+                Event first = queue.take();
+                batch.add(first);
+                // Collect whatever else arrives within the window opened by the first event
+                long deadline = first.enqueuedAt() + windowNanos;
+                long remaining;
+                while ((remaining = deadline - System.nanoTime()) > 0) {
+                    Event next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                queue.drainTo(batch);
+                flush(batch);
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Shutting down: push out the batch in hand and whatever is still queued rather than dropping it
+        queue.drainTo(batch);
+        if (!batch.isEmpty()) {
+            flush(batch);
+        }
+    }
+
+    private void flush(List<Event> batch) {
+        Map<String, List<byte[]>> frames = new LinkedHashMap<>();
+        for (Event e : batch) {
+            byte[] body = serialize(e.payload());
+            if (body == null) {
+                continue;
+            }
+            for (String destination : e.destinations()) {
+                frames.computeIfAbsent(destination, d -> new ArrayList<>()).add(body);
+            }
+        }
+        frames.forEach((destination, bodies) -> {
+            batchSize.record(bodies.size());
+            try {
+                send(destination, bodies.size() == 1 ? bodies.get(0) : array(bodies));
+            } catch (RuntimeException ex) {
+                log.warn("Could not broadcast {} task event(s) to {}", bodies.size(), destination, ex);
+            }
+        });
+        long now = System.nanoTime();
+        for (Event e : batch) {
+            latency.record(now - e.enqueuedAt(), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private byte[] serialize(Object payload) {
+        try {
+            return json.writeValueAsBytes(payload);
+        } catch (JsonProcessingException e) {
+            log.warn("Dropping task event that cannot be serialized: {}", payload, e);
+            return null;
+        }
+    }
+
+    private static byte[] array(List<byte[]> bodies) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write('[');
+        for (int i = 0; i < bodies.size(); i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            out.writeBytes(bodies.get(i));
+        }
+        out.write(']');
+        return out.toByteArray();
+    }
+
+    private void send(String destination, byte[] body) {
+        SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        headers.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        headers.setLeaveMutable(true);
+        broker.send(destination, MessageBuilder.createMessage(body, headers.getMessageHeaders()));
+    }
+}
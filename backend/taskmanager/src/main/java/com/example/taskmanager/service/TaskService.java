@@ -1,42 +1,98 @@
 package com.example.taskmanager.service;
 
+import com.example.taskmanager.dto.TaskBatchRequest;
+import com.example.taskmanager.dto.TaskBatchResult;
+import com.example.taskmanager.dto.TaskBatchUpdate;
 import com.example.taskmanager.dto.TaskCreateDto;
 import com.example.taskmanager.dto.TaskDto;
+import com.example.taskmanager.dto.TaskFilter;
+import com.example.taskmanager.dto.TaskPage;
 import com.example.taskmanager.dto.TaskUpdateDto;
 import com.example.taskmanager.mapper.TaskMapper;
 import com.example.taskmanager.model.Project;
 import com.example.taskmanager.model.Task;
 import com.example.taskmanager.repository.TaskRepository;
+import com.example.taskmanager.util.AfterCommit;
+import io.micrometer.core.annotation.Timed;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpStatus;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
+@Timed("app.service")
 public class TaskService {
 
+    // V1: tasks.project_id -> projects.id
+    private static final String PROJECT_FK = "tasks_project_fk";
+
     private final TaskRepository tasks;
     private final ProjectService projects;
-    private final SimpMessagingTemplate broker; // WebSocket broadcasts
+    private final TaskEventPublisher events; // WebSocket broadcasts, sent after commit
     private final TaskMapper mapper;
+    private final TaskDeadlineScheduler deadlines;
 
-    public TaskService(TaskRepository tasks, ProjectService projects, SimpMessagingTemplate broker, TaskMapper mapper) {
+    public TaskService(TaskRepository tasks, ProjectService projects, TaskEventPublisher events, TaskMapper mapper,
+                       TaskDeadlineScheduler deadlines) {
         this.tasks = tasks;
         this.projects = projects;
-        this.broker = broker;
+        this.events = events;
         this.mapper = mapper;
+        this.deadlines = deadlines;
+    }
+
+    // Return one keyset page of a project's tasks for any authenticated user (visibility widened per request).
+    // Read-only transaction: Hibernate runs it with flush mode MANUAL; rows come back as DTOs, not entities.
+    @Transactional(readOnly = true)
+    public TaskPage findByProject(Long projectId, TaskFilter filter, Long after, int limit) {
+        projects.requireExists(projectId);
+        Slice<TaskDto> slice = tasks.findPage(projectId, after == null ? 0L : after, filter, limit);
+        List<TaskDto> items = slice.getContent();
+        Long next = slice.hasNext() ? items.get(items.size() - 1).id() : null;
+        return new TaskPage(items, next);
+    }
+
+    // Changes whenever a task of the project changes; 404 for unknown projects.
+    // Read-only like the page itself, so with a replica the ETag and the body come from the same database.
+    @Transactional(readOnly = true)
+    public long listVersion(Long projectId) {
+        return projects.tasksVersion(projectId);
+    }
+
+    // Task.version of a single task without loading it
+    @Transactional(readOnly = true)
+    public long version(Long id) {
+        return tasks.findVersion(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Task not found"));
+    }
+
+    // Lets streaming endpoints fail with 404 before the response is committed
+    public void ensureProjectExists(Long projectId) {
+        projects.requireExists(projectId);
     }
 
-    // Return all tasks for a project for any authenticated user (visibility widened per request)
-    public List<TaskDto> findByProject(Long projectId) {
-        projects.getOr404(projectId);
-        return tasks.findByProjectId(projectId).stream().map(mapper::toDto).collect(Collectors.toList());
+    // Stream every task of a project to the sink; rows are DTOs, so memory stays flat regardless of project size
+    @Transactional(readOnly = true)
+    public void exportByProject(Long projectId, Consumer<TaskDto> sink) {
+        try (Stream<TaskDto> stream = tasks.streamByProjectId(projectId)) {
+            stream.forEach(sink);
+        }
     }
 
+    @Transactional
     public TaskDto create(Long projectId, TaskCreateDto dto) {
         Project p = projects.getOr404(projectId);
         Task t = Task.builder()
@@ -47,14 +103,15 @@ public class TaskService {
                 .project(p)
                 .build();
         Task saved = tasks.save(t);
+        flushInserts(projectId);
+        AfterCommit.run(() -> deadlines.track(saved.getId(), saved.getDeadline()));
         TaskDto out = mapper.toDto(saved);
-        // Broadcast to project-specific topic
-        broker.convertAndSend("/topic/projects/" + projectId + "/tasks", out);
-        // Also broadcast globally so everyone can receive notifications on task creation
-        broker.convertAndSend("/topic/tasks", out);
+        // Project topic plus the global one so everyone can receive notifications on task creation
+        events.publish(out, TaskEventPublisher.projectTopic(projectId), TaskEventPublisher.ALL_TASKS);
         return out;
     }
 
+    @Transactional
     public TaskDto update(Long id, TaskUpdateDto incoming) {
         Task existing = tasks.findById(id)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Task not found"));
@@ -63,22 +120,113 @@ public class TaskService {
         existing.setStatus(incoming.status());
         existing.setDeadline(incoming.deadline());
         Task saved = tasks.save(existing);
+        AfterCommit.run(() -> deadlines.track(saved.getId(), saved.getDeadline()));
         TaskDto out = mapper.toDto(saved);
-        broker.convertAndSend("/topic/projects/" + saved.getProject().getId() + "/tasks", out);
+        events.publish(out, TaskEventPublisher.projectTopic(saved.getProject().getId()));
         return out;
     }
 
+    @Transactional
     public void delete(Long id) {
         Task existing = tasks.findById(id)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Task not found"));
         Long projectId = existing.getProject().getId();
         tasks.delete(existing);
-        broker.convertAndSend("/topic/projects/" + projectId + "/tasks", Map.of("deletedId", id));
+        AfterCommit.run(() -> deadlines.cancel(id));
+        events.publish(Map.of("deletedId", id), TaskEventPublisher.projectTopic(projectId));
+    }
+
+    // One transaction for the whole batch; inserts and updates reach the database as JDBC batches at flush
+    @Transactional
+    public TaskBatchResult applyBatch(Long projectId, TaskBatchRequest batch) {
+        Project p = projects.getOr404(projectId);
+        Set<Long> touched = new HashSet<>();
+        Stream.concat(batch.update().stream().map(TaskBatchUpdate::id), batch.delete().stream()).forEach(id -> {
+            if (!touched.add(id)) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Task " + id + " appears more than once in the batch");
+            }
+        });
+        Map<Long, Task> existing = new HashMap<>();
+        for (Task t : tasks.findAllById(touched)) {
+            if (t.getProject().getId().equals(projectId)) {
+                existing.put(t.getId(), t);
+            }
+        }
+        for (Long id : touched) {
+            if (!existing.containsKey(id)) {
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Task " + id + " not found in project");
+            }
+        }
+
+        List<Task> deleted = batch.delete().stream().map(existing::get).toList();
+        if (!deleted.isEmpty()) {
+            tasks.deleteAllInBatch(deleted);
+        }
+
+        List<Task> updated = new ArrayList<>(batch.update().size());
+        for (TaskBatchUpdate u : batch.update()) {
+            Task t = existing.get(u.id());
+            t.setTitle(u.title());
+            t.setDescription(u.description());
+            t.setStatus(u.status());
+            t.setDeadline(u.deadline());
+            updated.add(t);
+        }
+
+        List<Task> created = tasks.saveAll(batch.create().stream()
+                .map(dto -> Task.builder()
+                        .title(dto.title())
+                        .description(dto.description())
+                        .status(dto.status())
+                        .deadline(dto.deadline())
+                        .project(p)
+                        .build())
+                .toList());
+        flushInserts(projectId);
+
+        AfterCommit.run(() -> {
+            batch.delete().forEach(deadlines::cancel);
+            Stream.concat(created.stream(), updated.stream()).forEach(t -> deadlines.track(t.getId(), t.getDeadline()));
+        });
+        TaskBatchResult result = new TaskBatchResult(
+                created.stream().map(mapper::toDto).toList(),
+                updated.stream().map(mapper::toDto).toList(),
+                batch.delete());
+
+        // One aggregated event instead of one or two per task
+        Map<String, Object> event = new LinkedHashMap<>();
+        event.put("action", "batch");
+        event.put("projectId", projectId);
+        event.put("created", result.created());
+        event.put("updated", result.updated());
+        event.put("deleted", result.deleted());
+        if (result.created().isEmpty()) {
+            events.publish(event, TaskEventPublisher.projectTopic(projectId));
+        } else {
+            events.publish(event, TaskEventPublisher.projectTopic(projectId), TaskEventPublisher.ALL_TASKS);
+        }
+        return result;
+    }
+
+    // Inserts reference the project through an unloaded proxy, so a project deleted after the
+    // existence check only surfaces as a tasks_project_fk violation; report it as a 404.
+    // Any other violation (NOT NULL, column length, ...) is a genuine error and propagates.
+    private void flushInserts(Long projectId) {
+        try {
+            tasks.flush();
+        } catch (DataIntegrityViolationException e) {
+            if (!(e.getCause() instanceof ConstraintViolationException cve)
+                    || !PROJECT_FK.equalsIgnoreCase(cve.getConstraintName())) {
+                throw e;
+            }
+            projects.forget(projectId);
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Project not found");
+        }
     }
 
+    @Transactional(readOnly = true)
     public TaskDto get(Long id) {
-        Task t = tasks.findById(id)
+        return tasks.findDtoById(id)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Task not found"));
-        return mapper.toDto(t);
     }
 }
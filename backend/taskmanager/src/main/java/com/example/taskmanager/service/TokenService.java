@@ -0,0 +1,90 @@
+package com.example.taskmanager.service;
+
+import com.example.taskmanager.dto.TokenResponse;
+import com.example.taskmanager.model.TokenFamily;
+import com.example.taskmanager.repository.TokenFamilyRepository;
+import com.example.taskmanager.security.JwtUtil;
+import com.example.taskmanager.security.RefreshClaims;
+import com.example.taskmanager.security.TokenRevocations;
+import com.example.taskmanager.security.TokenVersions;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Issues access/refresh token pairs. Each login starts a token family (one row); every refresh rotates
+ * the family to its next generation, so presenting an already used refresh token revokes the whole family.
+ */
+@Service
+public class TokenService {
+
+    private final JwtUtil jwt;
+    private final TokenFamilyRepository families;
+    private final TokenRevocations revocations;
+    private final TokenVersions versions;
+    private final UserDetailsService users;
+    private final Duration refreshTtl;
+
+    public TokenService(JwtUtil jwt, TokenFamilyRepository families, TokenRevocations revocations,
+                        TokenVersions versions, UserDetailsService users,
+                        @Value("${app.jwt.refresh.expiration:14d}") Duration refreshTtl) {
+        this.jwt = jwt;
+        this.families = families;
+        this.revocations = revocations;
+        this.versions = versions;
+        this.users = users;
+        this.refreshTtl = refreshTtl;
+    }
+
+    public TokenResponse issue(String username, String role) {
+        TokenFamily family = families.save(TokenFamily.builder()
+                .id(UUID.randomUUID().toString())
+                .username(username)
+                .generation(0)
+                .expiresAt(Instant.now().plus(refreshTtl))
+                .build());
+        return pair(username, role, family.getId(), 0, family.getExpiresAt());
+    }
+
+    public TokenResponse refresh(String refreshToken) {
+        RefreshClaims claims = jwt.validateRefresh(refreshToken).orElseThrow(TokenService::invalid);
+        if (families.rotate(claims.family(), claims.generation()) == 0) {
+            // Reuse of a rotated token means it leaked: end the session for everyone holding it
+            revocations.revoke(claims.family());
+            throw invalid();
+        }
+        UserDetails user;
+        try {
+            user = users.loadUserByUsername(claims.subject());
+        } catch (UsernameNotFoundException e) {
+            revocations.revoke(claims.family());
+            throw invalid();
+        }
+        String role = user.getAuthorities().iterator().next().getAuthority();
+        return pair(user.getUsername(), role, claims.family(), claims.generation() + 1, claims.expiresAt());
+    }
+
+    // Logout: invalid or already revoked tokens are ignored
+    public void revoke(String refreshToken) {
+        jwt.validateRefresh(refreshToken).ifPresent(c -> revocations.revoke(c.family()));
+    }
+
+    private TokenResponse pair(String username, String role, String family, int generation, Instant expiresAt) {
+        return new TokenResponse(
+                jwt.generateToken(username, role, family, versions.reload(username)),
+                jwt.generateRefreshToken(username, family, generation, expiresAt),
+                jwt.getExpirationMs() / 1000);
+    }
+
+    private static ResponseStatusException invalid() {
+        return new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Refresh token is invalid or expired");
+    }
+}
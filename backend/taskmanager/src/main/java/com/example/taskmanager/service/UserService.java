@@ -3,6 +3,10 @@ package com.example.taskmanager.service;
 import com.example.taskmanager.model.User;
 import com.example.taskmanager.enums.UserRole;
 import com.example.taskmanager.repository.UserRepository;
+import com.example.taskmanager.security.PrincipalCache;
+import com.example.taskmanager.security.TokenRevocations;
+import com.example.taskmanager.security.TokenVersions;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.*;
@@ -13,14 +17,22 @@ import org.springframework.web.server.ResponseStatusException;
 import java.util.List;
 
 @Service
+@Timed("app.service")
 public class UserService implements UserDetailsService {
 
     private final UserRepository users;
     private final PasswordEncoder encoder;
+    private final PrincipalCache principals;
+    private final TokenRevocations revocations;
+    private final TokenVersions versions;
 
-    public UserService(UserRepository users, PasswordEncoder encoder) {
+    public UserService(UserRepository users, PasswordEncoder encoder, PrincipalCache principals,
+                       TokenRevocations revocations, TokenVersions versions) {
         this.users = users;
         this.encoder = encoder;
+        this.principals = principals;
+        this.revocations = revocations;
+        this.versions = versions;
     }
 
     // Create user (defaults to ROLE_USER if null)
@@ -41,17 +53,37 @@ public class UserService implements UserDetailsService {
     }
 
     public void delete(Long id) {
-        if (!users.existsById(id)) {
-            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found");
-        }
-        users.deleteById(id);
+        User u = users.findById(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
+        users.delete(u);
+        principals.evictUser(u.getUsername());
+        versions.removed(u.getUsername());
+        revocations.revokeUser(u.getUsername());
     }
 
     public User changePassword(Long id, String newPassword) {
         User u = users.findById(id)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
         u.setPassword(encoder.encode(newPassword));
-        return users.save(u);
+        u.setTokenVersion(u.getTokenVersion() + 1);
+        User saved = users.save(u);
+        principals.evictUser(saved.getUsername());
+        versions.changed(saved.getUsername(), saved.getTokenVersion());
+        // Sessions opened with the old password end; the caller logs in again
+        revocations.revokeUser(saved.getUsername());
+        return saved;
+    }
+
+    public User changeRole(Long id, UserRole role) {
+        User u = users.findById(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
+        u.setRole(role);
+        // Access tokens carry the role: outdate them so the next refresh picks up the new one
+        u.setTokenVersion(u.getTokenVersion() + 1);
+        User saved = users.save(u);
+        principals.evictUser(saved.getUsername());
+        versions.changed(saved.getUsername(), saved.getTokenVersion());
+        return saved;
     }
 
     public boolean passwordMatches(String raw, String encoded) {
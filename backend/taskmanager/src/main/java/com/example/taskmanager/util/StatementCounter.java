@@ -0,0 +1,34 @@
+package com.example.taskmanager.util;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread while a scope is open; a JDBC batch
+ * counts once. Registered as Hibernate's statement inspector, so repository, JPQL and native queries are
+ * all seen; plain JDBC (Flyway, JdbcTemplate) is not.
+ */
+public final class StatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<int[]> COUNT = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        int[] count = COUNT.get();
+        if (count != null) {
+            count[0]++;
+        }
+        return sql;
+    }
+
+    // Start counting on this thread; statements outside a scope are ignored
+    public static void start() {
+        COUNT.set(new int[1]);
+    }
+
+    // End the scope and return how many statements ran in it
+    public static int stop() {
+        int[] count = COUNT.get();
+        COUNT.remove();
+        return count == null ? 0 : count[0];
+    }
+}
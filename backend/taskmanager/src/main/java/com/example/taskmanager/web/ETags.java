@@ -0,0 +1,28 @@
+package com.example.taskmanager.web;
+
+import org.springframework.http.CacheControl;
+
+import java.util.Arrays;
+
+/**
+ * Strong ETags for read endpoints, built from the task version column, the per-project
+ * tasks_changed_at stamp and the cached project list, so conditional GETs can be answered
+ * before any entity is loaded.
+ */
+public final class ETags {
+
+    // Let browsers keep the body but revalidate on every poll (Spring Security would otherwise send no-store)
+    public static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
+    private ETags() {}
+
+    public static String of(String kind, long version) {
+        return "\"" + kind + "-" + version + "\"";
+    }
+
+    // For bodies that also depend on request parameters (cursor, page size, filters). Hashed from their
+    // string form, which unlike enum hash codes is the same on every node.
+    public static String of(String kind, long version, Object... variant) {
+        return of(kind + "-" + Integer.toHexString(Arrays.toString(variant).hashCode()), version);
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.taskmanager.web;
 
 import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.BadCredentialsException;
@@ -19,7 +20,7 @@ public class GlobalExceptionHandler {
     public ResponseEntity<ApiError> handleStatus(ResponseStatusException ex, HttpServletRequest req) {
         var status = ex.getStatusCode();
         var body = ApiError.of(status.value(), status.toString(), ex.getReason(), req.getRequestURI());
-        return ResponseEntity.status(status).body(body);
+        return ResponseEntity.status(status).headers(ex.getHeaders()).body(body);
     }
 
     @ExceptionHandler(BadCredentialsException.class)
@@ -29,6 +30,14 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(body);
     }
 
+    // Concurrent update of the same task (Task.version)
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ApiError> conflict(OptimisticLockingFailureException ex, HttpServletRequest req) {
+        var body = ApiError.of(HttpStatus.CONFLICT.value(), HttpStatus.CONFLICT.name(),
+                "Resource was modified concurrently, reload and retry", req.getRequestURI());
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(body);
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ApiError> validation(MethodArgumentNotValidException ex, HttpServletRequest req) {
         Map<String, Object> details = ex.getBindingResult().getFieldErrors()
@@ -0,0 +1,20 @@
+package com.example.taskmanager.web;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Most SQL statements one call of the annotated handler may run, authentication included. The count must
+ * not grow with the number of rows returned or written; {@link StatementCountFilter} logs and counts
+ * requests over budget, and StatementBudgetIT asserts every endpoint stays within its own.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface StatementBudget {
+
+    int value();
+}
@@ -0,0 +1,86 @@
+package com.example.taskmanager.web;
+
+import com.example.taskmanager.util.StatementCounter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Records how many SQL statements each request ran as {@code http.server.requests.statements}, tagged like
+ * {@code http.server.requests} by method and URI template. A rising count on one endpoint is an N+1.
+ * Work handed to other threads (streaming exports, after-commit events) is not included.
+ * <p>
+ * Requests over the handler's {@link StatementBudget} (or the default budget) are logged and counted as
+ * {@code http.server.requests.statements.over.budget}; the response itself is not affected.
+ */
+public class StatementCountFilter extends OncePerRequestFilter {
+
+    public static final String METRIC = "http.server.requests.statements";
+    public static final String OVER_BUDGET_METRIC = METRIC + ".over.budget";
+
+    private static final Logger log = LoggerFactory.getLogger(StatementCountFilter.class);
+
+    private final MeterRegistry registry;
+    private final int defaultBudget;
+
+    public StatementCountFilter(MeterRegistry registry, int defaultBudget) {
+        this.registry = registry;
+        this.defaultBudget = defaultBudget;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest req, HttpServletResponse res, FilterChain chain)
+            throws ServletException, IOException {
+        StatementCounter.start();
+        try {
+            chain.doFilter(req, res);
+        } finally {
+            int statements = StatementCounter.stop();
+            String uri = uri(req);
+            DistributionSummary.builder(METRIC)
+                    .description("SQL statements run while serving one request")
+                    .baseUnit("statements")
+                    .tag("method", req.getMethod())
+                    .tag("uri", uri)
+                    .register(registry)
+                    .record(statements);
+            int budget = budget(req);
+            if (statements > budget) {
+                log.warn("{} {} ran {} SQL statements, budget is {}", req.getMethod(), uri, statements, budget);
+                Counter.builder(OVER_BUDGET_METRIC)
+                        .description("Requests that ran more SQL statements than their endpoint's budget")
+                        .tag("method", req.getMethod())
+                        .tag("uri", uri)
+                        .register(registry)
+                        .increment();
+            }
+        }
+    }
+
+    private int budget(HttpServletRequest req) {
+        if (req.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE) instanceof HandlerMethod handler) {
+            StatementBudget budget = handler.getMethodAnnotation(StatementBudget.class);
+            if (budget != null) {
+                return budget.value();
+            }
+        }
+        return defaultBudget;
+    }
+
+    // The matched template keeps the tag bounded; unmatched requests (404s, static) share one value
+    private static String uri(HttpServletRequest req) {
+        Object pattern = req.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern == null ? "UNKNOWN" : pattern.toString();
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.taskmanager.web;
+
+import com.example.taskmanager.dto.TaskDto;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+/**
+ * Writes exported tasks one row at a time, either as NDJSON (one JSON object per line) or CSV.
+ */
+public class TaskExportWriter implements Consumer<TaskDto> {
+
+    public enum Format {
+        NDJSON(MediaType.parseMediaType("application/x-ndjson"), "ndjson"),
+        CSV(MediaType.parseMediaType("text/csv;charset=UTF-8"), "csv");
+
+        private final MediaType mediaType;
+        private final String extension;
+
+        Format(MediaType mediaType, String extension) {
+            this.mediaType = mediaType;
+            this.extension = extension;
+        }
+
+        public MediaType mediaType() { return mediaType; }
+
+        public String extension() { return extension; }
+
+        public static Format of(String value) {
+            for (Format f : values()) {
+                if (f.extension.equalsIgnoreCase(value)) return f;
+            }
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unsupported export format: " + value);
+        }
+    }
+
+    private static final byte[] NEWLINE = {'\n'};
+    private static final String CSV_HEADER = "id,title,description,status,deadline,projectId\n";
+
+    private final Format format;
+    private final ObjectWriter json;
+    private final OutputStream out;
+
+    public TaskExportWriter(Format format, ObjectWriter json, OutputStream out) {
+        this.format = format;
+        this.json = json;
+        this.out = out;
+        if (format == Format.CSV) {
+            write(CSV_HEADER.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    @Override
+    public void accept(TaskDto t) {
+        try {
+            write(format == Format.CSV ? csvRow(t) : json.writeValueAsBytes(t));
+            write(NEWLINE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void write(byte[] bytes) {
+        try {
+            out.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // client went away; abort the export
+        }
+    }
+
+    private static byte[] csvRow(TaskDto t) {
+        String row = String.join(",",
+                String.valueOf(t.id()),
+                csv(t.title()),
+                csv(t.description()),
+                t.status() == null ? "" : t.status().name(),
+                t.deadline() == null ? "" : t.deadline().toString(),
+                t.projectId() == null ? "" : t.projectId().toString());
+        return row.getBytes(StandardCharsets.UTF_8);
+    }
+
+    // RFC 4180: quote when the value contains a separator, quote or line break
+    private static String csv(String value) {
+        if (value == null) return "";
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,12 @@
+-- One row per login session; refresh tokens rotate within a family by bumping its generation
+CREATE TABLE IF NOT EXISTS token_families (
+    id          VARCHAR(36)  PRIMARY KEY,
+    username    VARCHAR(100) NOT NULL,
+    generation  INT          NOT NULL DEFAULT 0,
+    expires_at  TIMESTAMP    NOT NULL,
+    revoked_at  TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_token_families_username ON token_families(username) WHERE revoked_at IS NULL;
+-- Revocation sync reads recently revoked families
+CREATE INDEX IF NOT EXISTS idx_token_families_revoked_at ON token_families(revoked_at) WHERE revoked_at IS NOT NULL;
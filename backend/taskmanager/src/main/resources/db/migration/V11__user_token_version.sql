@@ -0,0 +1,2 @@
+-- Bumped on role or password change and embedded in access tokens; a token with an older version is rejected
+ALTER TABLE users ADD COLUMN IF NOT EXISTS token_version INT NOT NULL DEFAULT 0;
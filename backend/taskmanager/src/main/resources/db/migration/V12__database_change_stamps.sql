@@ -0,0 +1,24 @@
+-- Delta sync compares tasks.updated_at and task_tombstones.deleted_at with one watermark, so both are
+-- stamped by the database clock. clock_timestamp() rather than now(): a long transaction would otherwise
+-- stamp its rows with its start time, further behind its commit than the sync overlap allows.
+
+-- Row-level and BEFORE, so it only touches the row being written. Covers every write path, including
+-- native updates (expiry) that never set the column themselves.
+CREATE OR REPLACE FUNCTION stamp_task_updated_at() RETURNS trigger AS $$
+BEGIN
+    NEW.updated_at := clock_timestamp();
+    RETURN NEW;
+END $$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS tasks_updated_at ON tasks;
+CREATE TRIGGER tasks_updated_at
+    BEFORE INSERT OR UPDATE ON tasks
+    FOR EACH ROW EXECUTE FUNCTION stamp_task_updated_at();
+
+CREATE OR REPLACE FUNCTION record_task_tombstones() RETURNS trigger AS $$
+BEGIN
+    INSERT INTO task_tombstones (task_id, project_id, deleted_at)
+    SELECT id, project_id, clock_timestamp() FROM deleted_tasks
+    ON CONFLICT (task_id) DO NOTHING;
+    RETURN NULL;
+END $$ LANGUAGE plpgsql;
@@ -0,0 +1,15 @@
+-- Every instant the database compares with now() or clock_timestamp() becomes TIMESTAMPTZ: TIMESTAMP
+-- (without time zone) made the comparison depend on each session's TimeZone setting. Existing values were
+-- written in the session time zone, which is also the one this conversion reads them in.
+ALTER TABLE scheduler_leases ALTER COLUMN expires_at TYPE TIMESTAMPTZ;
+
+ALTER TABLE token_families ALTER COLUMN expires_at TYPE TIMESTAMPTZ;
+ALTER TABLE token_families ALTER COLUMN revoked_at TYPE TIMESTAMPTZ;
+
+-- Expiry (deadline <= now()), delta sync and tombstone purging; one table rewrite covers both task columns
+-- and rebuilds the indexes on them
+ALTER TABLE tasks
+    ALTER COLUMN deadline TYPE TIMESTAMPTZ,
+    ALTER COLUMN updated_at TYPE TIMESTAMPTZ;
+
+ALTER TABLE task_tombstones ALTER COLUMN deleted_at TYPE TIMESTAMPTZ;
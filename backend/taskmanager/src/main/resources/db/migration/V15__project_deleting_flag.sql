@@ -0,0 +1,4 @@
+-- Deleting a large project commits its tasks in chunks, so a failure part way used to leave a half-emptied
+-- project that still looked normal. The project is now flagged first: flagged projects are hidden from
+-- listings and existence checks, and deleting one again resumes where the last attempt stopped.
+ALTER TABLE projects ADD COLUMN IF NOT EXISTS deleting BOOLEAN NOT NULL DEFAULT false;
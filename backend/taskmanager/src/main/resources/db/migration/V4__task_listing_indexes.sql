@@ -0,0 +1,7 @@
+-- Composite indexes for keyset-paginated task listing (ORDER BY id with id > :after per project)
+-- idx_tasks_project_status keeps serving status-only filters; these cover the cursor column too
+CREATE INDEX IF NOT EXISTS idx_tasks_project_id_id ON tasks(project_id, id);
+CREATE INDEX IF NOT EXISTS idx_tasks_project_status_id ON tasks(project_id, status, id);
+CREATE INDEX IF NOT EXISTS idx_tasks_project_deadline ON tasks(project_id, deadline, id);
+CREATE INDEX IF NOT EXISTS idx_tasks_project_expired_id ON tasks(project_id, expired_notified, id);
+
@@ -0,0 +1,2 @@
+-- Partial index for the expiry sweep: only tasks still waiting for their expiry notification
+CREATE INDEX IF NOT EXISTS idx_tasks_pending_deadline ON tasks(deadline) WHERE expired_notified = false;
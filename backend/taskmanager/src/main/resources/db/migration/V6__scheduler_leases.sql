@@ -0,0 +1,6 @@
+-- Named leases for cluster-wide singleton jobs (e.g. the task expiry reconciliation sweep)
+CREATE TABLE IF NOT EXISTS scheduler_leases (
+    name        VARCHAR(100) PRIMARY KEY,
+    owner       VARCHAR(200) NOT NULL,
+    expires_at  TIMESTAMP    NOT NULL
+);
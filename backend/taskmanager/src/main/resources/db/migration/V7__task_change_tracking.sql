@@ -0,0 +1,30 @@
+-- Change tracking for delta sync (GET /projects/{id}/tasks/changes?since=)
+ALTER TABLE tasks ADD COLUMN IF NOT EXISTS updated_at TIMESTAMP NOT NULL DEFAULT NOW();
+ALTER TABLE tasks ADD COLUMN IF NOT EXISTS version    BIGINT    NOT NULL DEFAULT 0;
+
+CREATE INDEX IF NOT EXISTS idx_tasks_project_updated ON tasks(project_id, updated_at);
+
+-- Deleted task ids, kept for app.tasks.changes.retention so clients can drop them locally
+CREATE TABLE IF NOT EXISTS task_tombstones (
+    task_id     BIGINT    PRIMARY KEY,
+    project_id  BIGINT    NOT NULL,
+    deleted_at  TIMESTAMP NOT NULL DEFAULT NOW()
+);
+
+CREATE INDEX IF NOT EXISTS idx_task_tombstones_project_deleted ON task_tombstones(project_id, deleted_at);
+CREATE INDEX IF NOT EXISTS idx_task_tombstones_deleted ON task_tombstones(deleted_at);
+
+-- Statement-level so bulk and cascading deletes (project removal) record tombstones in one INSERT
+CREATE OR REPLACE FUNCTION record_task_tombstones() RETURNS trigger AS $$
+BEGIN
+    INSERT INTO task_tombstones (task_id, project_id)
+    SELECT id, project_id FROM deleted_tasks
+    ON CONFLICT (task_id) DO NOTHING;
+    RETURN NULL;
+END $$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS tasks_tombstones ON tasks;
+CREATE TRIGGER tasks_tombstones
+    AFTER DELETE ON tasks
+    REFERENCING OLD TABLE AS deleted_tasks
+    FOR EACH STATEMENT EXECUTE FUNCTION record_task_tombstones();
@@ -0,0 +1,15 @@
+-- Move projects/tasks ids from IDENTITY to pooled sequences so Hibernate can batch inserts.
+-- Hibernate's pooled optimizer treats each nextval as the top of a block of 50 ids, so the sequences
+-- must start at least 50 above the current maximum id.
+ALTER TABLE projects ALTER COLUMN id DROP IDENTITY IF EXISTS;
+CREATE SEQUENCE IF NOT EXISTS projects_seq INCREMENT BY 50;
+SELECT setval('projects_seq', COALESCE((SELECT MAX(id) FROM projects), 0) + 50, false);
+-- Plain SQL inserts keep working; a default draw takes a whole block, so it never collides with Hibernate
+ALTER TABLE projects ALTER COLUMN id SET DEFAULT nextval('projects_seq');
+ALTER SEQUENCE projects_seq OWNED BY projects.id;
+
+ALTER TABLE tasks ALTER COLUMN id DROP IDENTITY IF EXISTS;
+CREATE SEQUENCE IF NOT EXISTS tasks_seq INCREMENT BY 50;
+SELECT setval('tasks_seq', COALESCE((SELECT MAX(id) FROM tasks), 0) + 50, false);
+ALTER TABLE tasks ALTER COLUMN id SET DEFAULT nextval('tasks_seq');
+ALTER SEQUENCE tasks_seq OWNED BY tasks.id;
@@ -0,0 +1,46 @@
+-- Validator behind the ETag of GET /projects/{id}/tasks: one timestamp per project, moved by a trigger on
+-- every write path (JPA, bulk and native updates, cascades), so the ETag is a primary-key lookup rather than
+-- an aggregate over the project's tasks.
+ALTER TABLE projects ADD COLUMN IF NOT EXISTS tasks_changed_at TIMESTAMPTZ NOT NULL DEFAULT NOW();
+
+-- Statement-level: a batch or bulk statement stamps each affected project once. The projects are locked in
+-- id order, so statements that touch several (expiry sweep, batches) cannot deadlock on each other, and
+-- writers of one project stamp in commit order. greatest(...) keeps the value moving even if two writes
+-- share a clock reading, so a client can never hold a current ETag for an older list.
+CREATE OR REPLACE FUNCTION stamp_project_tasks_changed() RETURNS trigger AS $$
+DECLARE
+    changed BIGINT[];
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        SELECT array_agg(DISTINCT project_id) INTO changed FROM new_tasks;
+    ELSIF TG_OP = 'UPDATE' THEN
+        SELECT array_agg(DISTINCT project_id) INTO changed
+        FROM (SELECT project_id FROM old_tasks UNION SELECT project_id FROM new_tasks) t;
+    ELSE
+        SELECT array_agg(DISTINCT project_id) INTO changed FROM old_tasks;
+    END IF;
+    PERFORM 1 FROM projects WHERE id = ANY (changed) ORDER BY id FOR NO KEY UPDATE;
+    UPDATE projects
+    SET tasks_changed_at = greatest(clock_timestamp(), tasks_changed_at + INTERVAL '1 microsecond')
+    WHERE id = ANY (changed);
+    RETURN NULL;
+END $$ LANGUAGE plpgsql;
+
+-- Transition tables allow a single event per trigger
+DROP TRIGGER IF EXISTS tasks_changed_insert ON tasks;
+CREATE TRIGGER tasks_changed_insert
+    AFTER INSERT ON tasks
+    REFERENCING NEW TABLE AS new_tasks
+    FOR EACH STATEMENT EXECUTE FUNCTION stamp_project_tasks_changed();
+
+DROP TRIGGER IF EXISTS tasks_changed_update ON tasks;
+CREATE TRIGGER tasks_changed_update
+    AFTER UPDATE ON tasks
+    REFERENCING OLD TABLE AS old_tasks NEW TABLE AS new_tasks
+    FOR EACH STATEMENT EXECUTE FUNCTION stamp_project_tasks_changed();
+
+DROP TRIGGER IF EXISTS tasks_changed_delete ON tasks;
+CREATE TRIGGER tasks_changed_delete
+    AFTER DELETE ON tasks
+    REFERENCING OLD TABLE AS old_tasks
+    FOR EACH STATEMENT EXECUTE FUNCTION stamp_project_tasks_changed();
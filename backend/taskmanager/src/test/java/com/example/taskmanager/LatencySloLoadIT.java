@@ -0,0 +1,345 @@
+package com.example.taskmanager;
+
+import com.example.taskmanager.support.LoadDriver;
+import com.example.taskmanager.support.LoadDriver.Latencies;
+import com.example.taskmanager.support.LoadDriver.Result;
+import com.example.taskmanager.support.LoadDriver.Step;
+import com.example.taskmanager.service.TaskEventPublisher;
+import com.example.taskmanager.support.PostgresTestDatabase;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import java.io.File;
+import java.io.InputStream;
+import java.lang.reflect.Type;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Mixed workload against one node on an embedded Postgres: logins, task list pages, single tasks,
+ * creates and updates over HTTP, while WebSocket subscribers receive the resulting task events.
+ * Reports throughput and p50/p99/p99.9 per endpoint (also written to target/load-slo-report.json)
+ * and fails when an endpoint errors or exceeds its latency ceiling from load-slo.properties.
+ * Ceilings can be overridden with -Dslo.&lt;key&gt;=ms; sizes with -Dload.clients, -Dload.subscribers,
+ * -Dload.seconds and -Dload.warmup-seconds.
+ */
+class LatencySloLoadIT {
+
+    static final int CLIENTS = Integer.getInteger("load.clients", 50);
+    static final int SUBSCRIBERS = Integer.getInteger("load.subscribers", 10);
+    static final Duration WARMUP = Duration.ofSeconds(Long.getLong("load.warmup-seconds", 15));
+    static final Duration MEASURE = Duration.ofSeconds(Long.getLong("load.seconds", 20));
+    static final int TASKS = 200;
+    static final int USERS = 20;
+    static final String WS_EVENT = "ws-event";
+
+    final ObjectMapper json = new ObjectMapper();
+
+    @Test
+    void mixedWorkloadMeetsLatencySlos() throws Exception {
+        Properties slo = loadSlo();
+        try (ConfigurableApplicationContext app = startNode()) {
+            int port = ((WebServerApplicationContext) app).getWebServer().getPort();
+            Workload workload = Workload.seed(json, "http://localhost:" + port);
+
+            // Events carry their send time in the title; only those sent after the warmup count
+            long measureFrom = System.nanoTime() + WARMUP.toNanos();
+            workload.countFrom(measureFrom);
+            Subscribers subscribers = Subscribers.connect(port, workload.projectId(), SUBSCRIBERS, measureFrom);
+            LoadDriver.Report report;
+            try {
+                report = LoadDriver.runMix("total", CLIENTS, WARMUP, MEASURE, workload::next);
+                Thread.sleep(2_000); // let in-flight events arrive
+            } finally {
+                subscribers.close();
+            }
+
+            Map<String, Result> endpoints = new LinkedHashMap<>(report.endpoints());
+            long expected = workload.published() * SUBSCRIBERS;
+            endpoints.put(WS_EVENT, subscribers.result(expected, MEASURE));
+
+            System.out.println(report.total());
+            endpoints.values().forEach(System.out::println);
+            writeReport(report.total(), endpoints);
+
+            List<String> violations = check(slo, endpoints);
+            violations.forEach(v -> System.out.println("SLO violated: " + v));
+            assertTrue(violations.isEmpty(), "SLO violations: " + violations);
+        }
+    }
+
+    private static List<String> check(Properties slo, Map<String, Result> endpoints) {
+        List<String> violations = new ArrayList<>();
+        double maxErrorRate = Double.parseDouble(slo.getProperty("max-error-rate", "0"));
+        endpoints.forEach((endpoint, r) -> {
+            if (r.requests() == 0) {
+                violations.add(endpoint + ": no samples");
+                return;
+            }
+            if ((double) r.errors() / r.requests() > maxErrorRate) {
+                violations.add(endpoint + ": " + r.errors() + " errors in " + r.requests());
+            }
+            for (String percentile : List.of("p99", "p999")) {
+                String ceiling = slo.getProperty(endpoint + "." + percentile);
+                double actual = Result.ms(percentile.equals("p99") ? r.p99() : r.p999());
+                if (ceiling != null && actual > Double.parseDouble(ceiling)) {
+                    violations.add(String.format("%s %s %.1fms > %sms", endpoint, percentile, actual, ceiling));
+                }
+            }
+            String minThroughput = slo.getProperty(endpoint + ".min-throughput");
+            if (minThroughput != null && r.throughput() < Double.parseDouble(minThroughput)) {
+                violations.add(String.format("%s throughput %.0f/s < %s/s", endpoint, r.throughput(), minThroughput));
+            }
+        });
+        return violations;
+    }
+
+    // Defaults from the classpath file, overridden by -Dslo.<key>=...
+    private static Properties loadSlo() throws Exception {
+        Properties slo = new Properties();
+        try (InputStream in = LatencySloLoadIT.class.getResourceAsStream("/load-slo.properties")) {
+            slo.load(in);
+        }
+        System.getProperties().stringPropertyNames().stream()
+                .filter(k -> k.startsWith("slo."))
+                .forEach(k -> slo.setProperty(k.substring(4), System.getProperty(k)));
+        return slo;
+    }
+
+    private void writeReport(Result total, Map<String, Result> endpoints) throws Exception {
+        ObjectNode root = json.createObjectNode()
+                .put("clients", CLIENTS)
+                .put("subscribers", SUBSCRIBERS)
+                .put("seconds", MEASURE.toSeconds());
+        ArrayNode rows = root.putArray("endpoints");
+        rows.add(row(total));
+        endpoints.values().forEach(r -> rows.add(row(r)));
+        new File("target").mkdirs();
+        json.enable(SerializationFeature.INDENT_OUTPUT).writeValue(new File("target/load-slo-report.json"), root);
+    }
+
+    private ObjectNode row(Result r) {
+        return json.createObjectNode()
+                .put("endpoint", r.name())
+                .put("requests", r.requests())
+                .put("errors", r.errors())
+                .put("throughput", Math.round(r.throughput() * 10) / 10.0)
+                .put("p50Ms", Result.ms(r.p50()))
+                .put("p99Ms", Result.ms(r.p99()))
+                .put("p999Ms", Result.ms(r.p999()))
+                .put("maxMs", Result.ms(r.max()));
+    }
+
+    private static ConfigurableApplicationContext startNode() {
+        // Passed as command-line arguments so they win over application.yml.
+        // The login limiter would throttle every client on 127.0.0.1; this suite measures the endpoints.
+        List<String> args = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--spring.threads.virtual.enabled=" + Boolean.getBoolean("load.virtual-threads"),
+                "--app.auth.rate-limit.per-ip=1000000",
+                "--app.auth.rate-limit.per-username=1000000",
+                "--logging.level.root=WARN"));
+        PostgresTestDatabase.properties().forEach((key, value) -> args.add("--" + key + "=" + value));
+        return new SpringApplicationBuilder(TaskmanagerApplication.class).run(args.toArray(String[]::new));
+    }
+
+    /**
+     * Per 100 requests: 1 login, 4 creates, 5 updates, 15 single-task reads, 75 list pages.
+     * Updates touch one task per client so they never conflict on the task version.
+     */
+    record Workload(String base, String token, long projectId, long[] taskIds, AtomicLong measureFrom,
+                    AtomicLong mutations) {
+
+        static Workload seed(ObjectMapper json, String base) throws Exception {
+            HttpClient http = HttpClient.newHttpClient();
+            for (int u = 0; u < USERS; u++) {
+                post(http, base + "/register", null,
+                        "{\"username\":\"slo-" + u + "\",\"password\":\"secret\",\"role\":\"ROLE_MODERATOR\"}");
+            }
+            String token = json.readTree(post(http, base + "/login", null,
+                    "{\"username\":\"slo-0\",\"password\":\"secret\"}")).get("token").asText();
+            long projectId = json.readTree(post(http, base + "/projects", token,
+                    "{\"name\":\"slo\"}")).get("id").asLong();
+            StringBuilder creates = new StringBuilder("{\"create\":[");
+            for (int i = 0; i < TASKS; i++) {
+                creates.append(i == 0 ? "" : ",").append("{\"title\":\"task ").append(i).append("\",\"status\":\"TODO\"}");
+            }
+            JsonNode created = json.readTree(post(http, base + "/projects/" + projectId + "/tasks:batch", token,
+                    creates.append("]}").toString())).get("created");
+            long[] ids = new long[created.size()];
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = created.get(i).get("id").asLong();
+            }
+            return new Workload(base, token, projectId, ids, new AtomicLong(Long.MAX_VALUE), new AtomicLong());
+        }
+
+        void countFrom(long nanos) {
+            measureFrom.set(nanos);
+        }
+
+        long published() {
+            return mutations.get();
+        }
+
+        Step next(HttpClient http, int client, long iteration) {
+            int slot = (int) ((client * 7 + iteration) % 100);
+            if (slot == 0) {
+                String user = "slo-" + (client % USERS);
+                return new Step("login", () -> send(http, HttpRequest.newBuilder(URI.create(base + "/login"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(
+                                "{\"username\":\"" + user + "\",\"password\":\"secret\"}")), false));
+            }
+            if (slot <= 4) {
+                return new Step("create-task", () -> mutate(http, HttpRequest.newBuilder(
+                        URI.create(base + "/projects/" + projectId + "/tasks")), "POST", "TODO"));
+            }
+            if (slot <= 9) {
+                long id = taskIds[client % taskIds.length];
+                return new Step("update-task", () -> mutate(http, HttpRequest.newBuilder(
+                        URI.create(base + "/tasks/" + id)), "PUT", "IN_PROGRESS"));
+            }
+            if (slot <= 24) {
+                long id = taskIds[(int) (iteration % taskIds.length)];
+                return new Step("get-task", () -> send(http,
+                        HttpRequest.newBuilder(URI.create(base + "/tasks/" + id)), true));
+            }
+            return new Step("list-tasks", () -> send(http,
+                    HttpRequest.newBuilder(URI.create(base + "/projects/" + projectId + "/tasks?limit=50")), true));
+        }
+
+        // Title carries the send time so subscribers can measure delivery lag
+        private int mutate(HttpClient http, HttpRequest.Builder req, String method, String status) throws Exception {
+            long sentAt = System.nanoTime();
+            req.header("Content-Type", "application/json").method(method, HttpRequest.BodyPublishers.ofString(
+                    "{\"title\":\"load " + sentAt + "\",\"status\":\"" + status + "\"}"));
+            int code = send(http, req, true);
+            if (code < 400 && sentAt >= measureFrom.get()) {
+                mutations.incrementAndGet();
+            }
+            return code;
+        }
+
+        private int send(HttpClient http, HttpRequest.Builder req, boolean authorized) throws Exception {
+            if (authorized) {
+                req.header("Authorization", "Bearer " + token);
+            }
+            req.timeout(Duration.ofSeconds(30));
+            return http.send(req.build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+        }
+
+        private static String post(HttpClient http, String url, String token, String body) throws Exception {
+            HttpRequest.Builder req = HttpRequest.newBuilder(URI.create(url))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body));
+            if (token != null) {
+                req.header("Authorization", "Bearer " + token);
+            }
+            HttpResponse<String> res = http.send(req.build(), HttpResponse.BodyHandlers.ofString());
+            if (res.statusCode() >= 400) {
+                throw new IllegalStateException(url + " -> " + res.statusCode() + " " + res.body());
+            }
+            return res.body();
+        }
+    }
+
+    /** STOMP clients on the project topic, recording the lag between a mutation's send and its event. */
+    static final class Subscribers implements AutoCloseable {
+
+        private final ThreadPoolTaskScheduler heartbeats = new ThreadPoolTaskScheduler();
+        private final List<StompSession> sessions = new ArrayList<>();
+        private final Latencies lag = new Latencies();
+        private final long measureFrom;
+
+        private Subscribers(long measureFrom) {
+            this.measureFrom = measureFrom;
+            heartbeats.initialize();
+        }
+
+        static Subscribers connect(int port, long projectId, int count, long measureFrom) throws Exception {
+            Subscribers subscribers = new Subscribers(measureFrom);
+            WebSocketStompClient client = new WebSocketStompClient(new StandardWebSocketClient());
+            client.setMessageConverter(new MappingJackson2MessageConverter());
+            client.setTaskScheduler(subscribers.heartbeats);
+            for (int i = 0; i < count; i++) {
+                StompSession session = client.connectAsync("ws://localhost:" + port + "/stomp",
+                        new StompSessionHandlerAdapter() {}).get(10, TimeUnit.SECONDS);
+                subscribers.sessions.add(session);
+                // The simple broker sends no receipts; the warmup covers the subscription becoming active
+                session.subscribe(TaskEventPublisher.projectTopic(projectId), subscribers.handler());
+            }
+            return subscribers;
+        }
+
+        private StompFrameHandler handler() {
+            return new StompFrameHandler() {
+                @Override
+                public Type getPayloadType(StompHeaders headers) {
+                    return JsonNode.class;
+                }
+
+                @Override
+                public void handleFrame(StompHeaders headers, Object payload) {
+                    long now = System.nanoTime();
+                    JsonNode frame = (JsonNode) payload;
+                    // Events coalesced within the publisher's window arrive as one array
+                    for (JsonNode event : frame.isArray() ? frame : List.of(frame)) {
+                        String title = event.path("title").asText("");
+                        if (!title.startsWith("load ")) {
+                            continue;
+                        }
+                        long sentAt = Long.parseLong(title.substring(5));
+                        if (sentAt >= measureFrom) {
+                            synchronized (lag) {
+                                lag.record(now - sentAt, true);
+                            }
+                        }
+                    }
+                }
+            };
+        }
+
+        // Events never received count as errors
+        Result result(long expected, Duration elapsed) {
+            synchronized (lag) {
+                Result r = lag.result(WS_EVENT, sessions.size(), elapsed);
+                long missing = Math.max(0, expected - r.requests());
+                return new Result(r.name(), r.clients(), r.requests() + missing, missing, r.elapsed(),
+                        r.p50(), r.p99(), r.p999(), r.max());
+            }
+        }
+
+        @Override
+        public void close() {
+            sessions.forEach(StompSession::disconnect);
+            heartbeats.shutdown();
+        }
+    }
+}
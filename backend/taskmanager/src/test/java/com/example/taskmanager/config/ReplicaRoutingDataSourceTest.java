@@ -0,0 +1,132 @@
+package com.example.taskmanager.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReplicaRoutingDataSourceTest {
+
+    final DataSource primary = mock(DataSource.class);
+    final DataSource replica = mock(DataSource.class);
+    final Connection primaryConnection = mock(Connection.class);
+    final Connection replicaConnection = mock(Connection.class);
+    final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    ReplicaRoutingDataSource routing;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(replica.getConnection()).thenReturn(replicaConnection);
+        routing = new ReplicaRoutingDataSource(primary, replica, Duration.ofMinutes(1), 100, registry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clear();
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void outsideTransaction_usesPrimary() throws Exception {
+        assertSame(primaryConnection, serviceRead(() -> routing.getConnection()));
+    }
+
+    @Test
+    void readOnlyServiceTransaction_usesReplica() throws Exception {
+        begin(true);
+
+        assertSame(replicaConnection, serviceRead(() -> routing.getConnection()));
+        assertEquals(1, registry.get("app.datasource.routed").tag("target", "replica").counter().count());
+    }
+
+    @Test
+    void readOnlyTransactionOutsideServiceRead_usesPrimary() throws Exception {
+        begin(true);
+
+        assertSame(primaryConnection, routing.getConnection());
+    }
+
+    @Test
+    void afterCommittedWrite_sameUserReadsPrimary_othersReadReplica() throws Exception {
+        login("alice");
+        begin(false);
+        assertSame(primaryConnection, routing.getConnection());
+        commit();
+
+        begin(true);
+        assertSame(primaryConnection, serviceRead(() -> routing.getConnection()));
+        assertEquals(1, registry.get("app.datasource.routed").tag("reason", "read-your-writes").counter().count());
+
+        login("bob");
+        assertSame(replicaConnection, serviceRead(() -> routing.getConnection()));
+    }
+
+    @Test
+    void rolledBackWrite_doesNotPinUserToPrimary() throws Exception {
+        login("alice");
+        begin(false);
+        routing.getConnection();
+        TransactionSynchronizationManager.clear(); // rolled back: afterCommit never runs
+
+        begin(true);
+        assertSame(replicaConnection, serviceRead(() -> routing.getConnection()));
+    }
+
+    @Test
+    void restore_keepsOuterServiceReadFlag() throws Exception {
+        begin(true);
+        boolean outer = ReplicaRoutingDataSource.enterServiceRead();
+        boolean inner = ReplicaRoutingDataSource.enterServiceRead();
+        ReplicaRoutingDataSource.restore(inner);
+
+        assertSame(replicaConnection, routing.getConnection());
+        ReplicaRoutingDataSource.restore(outer);
+        assertSame(primaryConnection, routing.getConnection());
+    }
+
+    interface SqlCall<T> {
+        T call() throws Exception;
+    }
+
+    private static <T> T serviceRead(SqlCall<T> call) throws Exception {
+        boolean previous = ReplicaRoutingDataSource.enterServiceRead();
+        try {
+            return call.call();
+        } finally {
+            ReplicaRoutingDataSource.restore(previous);
+        }
+    }
+
+    private static void begin(boolean readOnly) {
+        TransactionSynchronizationManager.clear();
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(readOnly);
+    }
+
+    private static void commit() {
+        TransactionSynchronizationUtils.invokeAfterCommit(TransactionSynchronizationManager.getSynchronizations());
+        TransactionSynchronizationManager.clear();
+    }
+
+    private static void login(String user) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user, null, List.of()));
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.taskmanager.config;
+
+import com.example.taskmanager.support.PostgresTestDatabase;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Primary and replica as two separate Postgres servers with the same schema and no replication between them,
+ * so which one served a read is visible in the response: rows written through the API exist only on the
+ * primary until the test copies them to the replica.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "app.datasource.replica.read-your-writes=1s")
+@DirtiesContext // closes the pools before the replica server goes away
+class ReplicaRoutingIT {
+
+    static EmbeddedPostgres replica;
+
+    @DynamicPropertySource
+    static void datasources(DynamicPropertyRegistry registry) throws Exception {
+        PostgresTestDatabase.register(registry);
+        replica = EmbeddedPostgres.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                replica.close();
+            } catch (IOException ignored) {
+                // JVM is going away anyway
+            }
+        }));
+        Flyway.configure().dataSource(replica.getPostgresDatabase()).load().migrate();
+        registry.add("app.datasource.replica.url", () -> replica.getJdbcUrl("postgres", "postgres"));
+        registry.add("app.datasource.replica.username", () -> "postgres");
+        registry.add("app.datasource.replica.password", () -> "postgres");
+    }
+
+    @LocalServerPort int port;
+    @Autowired MeterRegistry registry;
+
+    final HttpClient http = HttpClient.newHttpClient();
+    final ObjectMapper json = new ObjectMapper();
+
+    @Test
+    void readOnlyServiceCallsGoToReplica_exceptForTheWriterWithinItsWindow() throws Exception {
+        // Logins read users through repository defaults, which stay on the primary
+        String writer = login("replica-writer", "ROLE_MODERATOR");
+        String reader = login("replica-reader", "ROLE_USER");
+
+        Instant since = Instant.now().minusSeconds(60);
+        long projectId = send("POST", "/projects", writer, "{\"name\":\"replicated\"}").get("id").asLong();
+        long taskId = send("POST", "/projects/" + projectId + "/tasks", writer,
+                "{\"title\":\"only on primary\",\"status\":\"TODO\"}").get("id").asLong();
+
+        assertEquals(404, status("/tasks/" + taskId, reader), "reader is served by the replica");
+        assertEquals(200, status("/tasks/" + taskId, writer), "writer reads its own write from the primary");
+
+        Thread.sleep(1500);
+        assertEquals(404, status("/tasks/" + taskId, writer), "after the window the writer reads the replica too");
+        JsonNode changes = send("GET", "/projects/" + projectId + "/tasks/changes?since=" + since, reader, null);
+        assertEquals(taskId, changes.get("changed").get(0).get("id").asLong(), "delta sync always reads the primary");
+
+        try (Connection c = replica.getPostgresDatabase().getConnection()) {
+            exec(c, "insert into projects (id, name) values (?, 'replicated')", projectId);
+            exec(c, "insert into tasks (id, title, status, project_id) values (?, 'replicated', 'TODO', ?)",
+                    taskId, projectId);
+        }
+        assertEquals(200, status("/tasks/" + taskId, reader));
+
+        assertTrue(registry.get("app.datasource.routed").tag("reason", "read-your-writes").counter().count() >= 1);
+        assertTrue(registry.get("app.datasource.routed").tag("target", "replica").counter().count() >= 3);
+    }
+
+    private String login(String username, String role) throws Exception {
+        send("POST", "/register", null,
+                "{\"username\":\"" + username + "\",\"password\":\"secret\",\"role\":\"" + role + "\"}");
+        return send("POST", "/login", null, "{\"username\":\"" + username + "\",\"password\":\"secret\"}")
+                .get("token").asText();
+    }
+
+    private int status(String path, String token) throws Exception {
+        return http.send(request("GET", path, token, null).build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private JsonNode send(String method, String path, String token, String body) throws Exception {
+        HttpResponse<String> res = http.send(request(method, path, token, body).build(), HttpResponse.BodyHandlers.ofString());
+        assertTrue(res.statusCode() < 300, method + " " + path + " -> " + res.statusCode() + " " + res.body());
+        return res.body().isEmpty() ? null : json.readTree(res.body());
+    }
+
+    private HttpRequest.Builder request(String method, String path, String token, String body) {
+        HttpRequest.Builder req = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header("Content-Type", "application/json")
+                .method(method, body == null ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofString(body));
+        if (token != null) {
+            req.header("Authorization", "Bearer " + token);
+        }
+        return req;
+    }
+
+    private static void exec(Connection c, String sql, Object... args) throws Exception {
+        try (PreparedStatement ps = c.prepareStatement(sql)) {
+            for (int i = 0; i < args.length; i++) {
+                ps.setObject(i + 1, args[i]);
+            }
+            ps.executeUpdate();
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.taskmanager.config;
+
+import com.example.taskmanager.TaskmanagerApplication;
+import com.example.taskmanager.support.LoadDriver;
+import com.example.taskmanager.support.PostgresTestDatabase;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Same mixed workload against Tomcat on platform threads and on virtual threads
+ * ({@code spring.threads.virtual.enabled}), with more concurrent clients than Tomcat has workers.
+ * Prints throughput and latency percentiles for both; only errors fail the test, since the numbers
+ * depend on the machine. Sizes: -Dload.clients, -Dload.seconds, -Dload.warmup-seconds.
+ */
+class ThreadModeLoadIT {
+
+    static final int CLIENTS = Integer.getInteger("load.clients", 400);
+    static final Duration WARMUP = Duration.ofSeconds(Long.getLong("load.warmup-seconds", 10));
+    static final Duration MEASURE = Duration.ofSeconds(Long.getLong("load.seconds", 10));
+    static final int TASKS = 200;
+
+    final ObjectMapper json = new ObjectMapper();
+
+    @Test
+    void platformVersusVirtualThreads() throws Exception {
+        LoadDriver.Result platform = runWith(false);
+        LoadDriver.Result virtual = runWith(true);
+
+        System.out.println(platform);
+        System.out.println(virtual);
+        assertEquals(0, platform.errors(), "errors on platform threads");
+        assertEquals(0, virtual.errors(), "errors on virtual threads");
+    }
+
+    private LoadDriver.Result runWith(boolean virtualThreads) throws Exception {
+        String mode = virtualThreads ? "virtual" : "platform";
+        try (ConfigurableApplicationContext app = startNode(virtualThreads)) {
+            String base = "http://localhost:" + ((WebServerApplicationContext) app).getWebServer().getPort();
+            Workload workload = Workload.seed(json, base, "load-" + mode);
+            LoadDriver.Result result = LoadDriver.run(mode, CLIENTS, WARMUP, MEASURE, workload::next);
+            Timer pinned = app.getBean(MeterRegistry.class).find("jvm.threads.virtual.pinned").timer();
+            System.out.println(mode + ": pinned virtual threads " + (pinned == null ? 0 : pinned.count()));
+            return result;
+        }
+    }
+
+    private static ConfigurableApplicationContext startNode(boolean virtualThreads) {
+        // Passed as command-line arguments so they win over application.yml
+        List<String> args = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--spring.threads.virtual.enabled=" + virtualThreads,
+                "--logging.level.root=WARN"));
+        PostgresTestDatabase.properties().forEach((key, value) -> args.add("--" + key + "=" + value));
+        return new SpringApplicationBuilder(TaskmanagerApplication.class).run(args.toArray(String[]::new));
+    }
+
+    /** Mostly reads, as seen from dashboards: 85% task list pages, 10% single tasks, 5% creates. */
+    record Workload(String base, String token, long projectId, long[] taskIds) {
+
+        static Workload seed(ObjectMapper json, String base, String username) throws Exception {
+            HttpClient http = HttpClient.newHttpClient();
+            post(http, base + "/register", null,
+                    "{\"username\":\"" + username + "\",\"password\":\"secret\",\"role\":\"ROLE_MODERATOR\"}");
+            String token = json.readTree(post(http, base + "/login", null,
+                    "{\"username\":\"" + username + "\",\"password\":\"secret\"}")).get("token").asText();
+            long projectId = json.readTree(post(http, base + "/projects", token,
+                    "{\"name\":\"" + username + "\"}")).get("id").asLong();
+            StringBuilder creates = new StringBuilder("{\"create\":[");
+            for (int i = 0; i < TASKS; i++) {
+                creates.append(i == 0 ? "" : ",").append("{\"title\":\"task ").append(i).append("\",\"status\":\"TODO\"}");
+            }
+            JsonNode created = json.readTree(post(http, base + "/projects/" + projectId + "/tasks:batch", token,
+                    creates.append("]}").toString())).get("created");
+            long[] ids = new long[created.size()];
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = created.get(i).get("id").asLong();
+            }
+            return new Workload(base, token, projectId, ids);
+        }
+
+        int next(HttpClient http, int client, long iteration) throws Exception {
+            int slot = (int) ((client + iteration) % 20);
+            HttpRequest.Builder req;
+            if (slot == 0) {
+                req = HttpRequest.newBuilder(URI.create(base + "/projects/" + projectId + "/tasks"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString("{\"title\":\"load\",\"status\":\"TODO\"}"));
+            } else if (slot <= 2) {
+                req = HttpRequest.newBuilder(URI.create(base + "/tasks/" + taskIds[(int) (iteration % taskIds.length)]));
+            } else {
+                req = HttpRequest.newBuilder(URI.create(base + "/projects/" + projectId + "/tasks?limit=50"));
+            }
+            req.header("Authorization", "Bearer " + token).timeout(Duration.ofSeconds(30));
+            return http.send(req.build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+        }
+
+        private static String post(HttpClient http, String url, String token, String body) throws Exception {
+            HttpRequest.Builder req = HttpRequest.newBuilder(URI.create(url))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body));
+            if (token != null) {
+                req.header("Authorization", "Bearer " + token);
+            }
+            HttpResponse<String> res = http.send(req.build(), HttpResponse.BodyHandlers.ofString());
+            if (res.statusCode() >= 400) {
+                throw new IllegalStateException(url + " -> " + res.statusCode() + " " + res.body());
+            }
+            return res.body();
+        }
+    }
+}
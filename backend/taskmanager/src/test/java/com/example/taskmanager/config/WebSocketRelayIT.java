@@ -0,0 +1,136 @@
+package com.example.taskmanager.config;
+
+import com.example.taskmanager.TaskmanagerApplication;
+import com.example.taskmanager.dto.ProjectCreateDto;
+import com.example.taskmanager.dto.TaskCreateDto;
+import com.example.taskmanager.enums.TaskStatus;
+import com.example.taskmanager.service.ProjectService;
+import com.example.taskmanager.service.TaskService;
+import com.example.taskmanager.support.PostgresTestDatabase;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.apache.activemq.artemis.core.config.Configuration;
+import org.apache.activemq.artemis.core.config.impl.ConfigurationImpl;
+import org.apache.activemq.artemis.core.server.embedded.EmbeddedActiveMQ;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import java.lang.reflect.Type;
+import java.net.ServerSocket;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Two application nodes in relay mode behind one embedded STOMP broker (Artemis stands in for the
+ * production broker): a client connected to node A must see a task created on node B.
+ */
+class WebSocketRelayIT {
+
+    @TempDir
+    static Path brokerDir;
+
+    static EmbeddedActiveMQ broker;
+    static ConfigurableApplicationContext nodeA;
+    static ConfigurableApplicationContext nodeB;
+
+    @BeforeAll
+    static void start() throws Exception {
+        int stompPort = freePort();
+        Configuration config = new ConfigurationImpl()
+                .setPersistenceEnabled(false)
+                .setSecurityEnabled(false)
+                .addAcceptorConfiguration("stomp",
+                        "tcp://localhost:" + stompPort + "?protocols=STOMP;multicastPrefix=/topic/");
+        config.setBrokerInstance(brokerDir.toFile());
+        broker = new EmbeddedActiveMQ().setConfiguration(config).start();
+
+        nodeA = startNode(stompPort);
+        nodeB = startNode(stompPort);
+    }
+
+    @AfterAll
+    static void stop() throws Exception {
+        if (nodeA != null) nodeA.close();
+        if (nodeB != null) nodeB.close();
+        if (broker != null) broker.stop();
+    }
+
+    @Test
+    void taskCreatedOnOneNode_reachesSubscriberOnTheOther() throws Exception {
+        ThreadPoolTaskScheduler receipts = new ThreadPoolTaskScheduler();
+        receipts.initialize();
+        WebSocketStompClient client = new WebSocketStompClient(new StandardWebSocketClient());
+        client.setMessageConverter(new MappingJackson2MessageConverter());
+        client.setTaskScheduler(receipts);
+        int portA = ((WebServerApplicationContext) nodeA).getWebServer().getPort();
+        StompSession session = client.connectAsync("ws://localhost:" + portA + "/stomp", new StompSessionHandlerAdapter() {})
+                .get(10, TimeUnit.SECONDS);
+        try {
+            BlockingQueue<JsonNode> received = new LinkedBlockingQueue<>();
+            StompHeaders subscribe = new StompHeaders();
+            subscribe.setDestination("/topic/tasks");
+            subscribe.setReceipt("subscribed");
+            CompletableFuture<Void> subscribed = new CompletableFuture<>();
+            session.subscribe(subscribe, new StompFrameHandler() {
+                @Override
+                public Type getPayloadType(StompHeaders headers) {
+                    return JsonNode.class;
+                }
+
+                @Override
+                public void handleFrame(StompHeaders headers, Object payload) {
+                    received.add((JsonNode) payload);
+                }
+            }).addReceiptTask(() -> subscribed.complete(null));
+            // The broker confirms the subscription, so the event below cannot race it
+            subscribed.get(10, TimeUnit.SECONDS);
+
+            Long projectId = nodeB.getBean(ProjectService.class).create(new ProjectCreateDto("relay", null)).id();
+            nodeB.getBean(TaskService.class).create(projectId, new TaskCreateDto("from node B", null, TaskStatus.TODO, null));
+
+            JsonNode event = received.poll(10, TimeUnit.SECONDS);
+            assertNotNull(event, "event from node B never reached node A's subscriber");
+            assertEquals("from node B", event.get("title").asText());
+        } finally {
+            session.disconnect();
+            receipts.shutdown();
+        }
+    }
+
+    private static ConfigurableApplicationContext startNode(int stompPort) {
+        // Passed as command-line arguments so they win over application.yml
+        List<String> args = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--management.server.port=0",
+                "--app.websocket.broker=relay",
+                "--app.websocket.relay.port=" + stompPort));
+        PostgresTestDatabase.properties().forEach((key, value) -> args.add("--" + key + "=" + value));
+        return new SpringApplicationBuilder(TaskmanagerApplication.class).run(args.toArray(String[]::new));
+    }
+
+    private static int freePort() throws Exception {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.taskmanager.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.MessageBuilder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WebSocketSendMetricsTest {
+
+    final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    final WebSocketSendMetrics metrics = new WebSocketSendMetrics(registry);
+
+    @Test
+    void countsMessagesPerDestinationWithIdsCollapsed() {
+        metrics.preSend(message(SimpMessageType.MESSAGE, "/topic/projects/7/tasks"), null);
+        metrics.preSend(message(SimpMessageType.MESSAGE, "/topic/projects/8/tasks"), null);
+        metrics.preSend(message(SimpMessageType.MESSAGE, "/topic/tasks"), null);
+        metrics.preSend(message(SimpMessageType.HEARTBEAT, "/topic/tasks"), null);
+
+        assertEquals(2, registry.get("websocket.messages.sent").tag("destination", "/topic/projects/{id}/tasks").counter().count());
+        assertEquals(1, registry.get("websocket.messages.sent").tag("destination", "/topic/tasks").counter().count());
+    }
+
+    @Test
+    void prefix_collapsesOnlyWholeNumericSegments() {
+        assertEquals("/topic/projects/{id}", WebSocketSendMetrics.prefix("/topic/projects/42"));
+        assertEquals("/topic/v2x/tasks", WebSocketSendMetrics.prefix("/topic/v2x/tasks"));
+    }
+
+    private static Message<byte[]> message(SimpMessageType type, String destination) {
+        SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.create(type);
+        headers.setDestination(destination);
+        return MessageBuilder.createMessage(new byte[0], headers.getMessageHeaders());
+    }
+}
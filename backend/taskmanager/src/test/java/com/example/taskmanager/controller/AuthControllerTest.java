@@ -1,8 +1,11 @@
 package com.example.taskmanager.controller;
 
+import com.example.taskmanager.dto.TokenResponse;
 import com.example.taskmanager.enums.UserRole;
 import com.example.taskmanager.security.JwtAuthFilter;
-import com.example.taskmanager.security.JwtUtil;
+import com.example.taskmanager.security.LoginRateLimiter;
+import com.example.taskmanager.service.TokenService;
+import com.example.taskmanager.web.TooManyRequestsException;
 import com.example.taskmanager.service.UserService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
@@ -37,7 +40,10 @@ class AuthControllerTest {
     private UserService userService;
 
     @MockBean
-    private JwtUtil jwtUtil;
+    private TokenService tokenService;
+
+    @MockBean
+    private LoginRateLimiter loginRateLimiter;
 
     // Mock security filter to satisfy context if SecurityConfig is loaded
     @MockBean
@@ -63,14 +69,47 @@ class AuthControllerTest {
 
         Mockito.when(userService.loadUserByUsername("eleni")).thenReturn(ud);
         Mockito.when(userService.passwordMatches("P@ssw0rd!", "ENCODED")).thenReturn(true);
-        Mockito.when(jwtUtil.generateToken("eleni", "ROLE_USER")).thenReturn("fake.jwt.token");
+        Mockito.when(tokenService.issue("eleni", "ROLE_USER"))
+                .thenReturn(new TokenResponse("fake.jwt.token", "fake.refresh.token", 900));
 
         mvc.perform(post("/login")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(body)))
                 .andExpect(status().isOk())
                 .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
-                .andExpect(jsonPath("$.token").value("fake.jwt.token"));
+                .andExpect(jsonPath("$.token").value("fake.jwt.token"))
+                .andExpect(jsonPath("$.refreshToken").value("fake.refresh.token"))
+                .andExpect(jsonPath("$.expiresIn").value(900));
+    }
+
+    @Test
+    void refresh_returns_new_pair_and_401_when_rejected() throws Exception {
+        Mockito.when(tokenService.refresh("good"))
+                .thenReturn(new TokenResponse("access.2", "refresh.2", 900));
+        Mockito.when(tokenService.refresh("reused"))
+                .thenThrow(new org.springframework.web.server.ResponseStatusException(
+                        org.springframework.http.HttpStatus.UNAUTHORIZED, "Refresh token is invalid or expired"));
+
+        mvc.perform(post("/token/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"refreshToken\":\"good\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.token").value("access.2"))
+                .andExpect(jsonPath("$.refreshToken").value("refresh.2"));
+
+        mvc.perform(post("/token/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"refreshToken\":\"reused\"}"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void revoke_returns204() throws Exception {
+        mvc.perform(post("/token/revoke")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"refreshToken\":\"r\"}"))
+                .andExpect(status().isNoContent());
+        Mockito.verify(tokenService).revoke("r");
     }
 
     @Test
@@ -87,6 +126,22 @@ class AuthControllerTest {
                 .andExpect(status().isUnauthorized());
     }
 
+    @Test
+    void login_429_with_retry_after_when_rate_limited() throws Exception {
+        var body = new AuthController.LoginRequest("eleni", "guess");
+        Mockito.doThrow(new TooManyRequestsException("Too many login attempts for this user", 42))
+                .when(loginRateLimiter).check(eq("eleni"), anyString());
+
+        mvc.perform(post("/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(body)))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "42"));
+
+        Mockito.verify(userService, Mockito.never()).loadUserByUsername(anyString());
+        Mockito.verify(userService, Mockito.never()).passwordMatches(anyString(), anyString());
+    }
+
     @Test
     void register_409_when_username_exists() throws Exception {
         var body = new AuthController.RegisterRequest("eleni", "P@ssw0rd!", UserRole.ROLE_USER);
@@ -116,5 +171,4 @@ class AuthControllerTest {
                         .content(invalidJson))
                 .andExpect(status().isBadRequest());
     }
-
 }
@@ -18,6 +18,7 @@ import jakarta.annotation.Resource;
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -50,6 +51,34 @@ class ProjectControllerTest {
                 .andExpect(jsonPath("$[0].name").value("Alpha"));
     }
 
+    @Test
+    void getAll_sends_etag_of_the_listing_and_returns_304_when_unchanged() throws Exception {
+        var listing = List.of(new ProjectDto(1L, "Alpha", "desc", null));
+        Mockito.when(projectService.findAll()).thenReturn(listing);
+        String etag = "\"projects-" + listing.hashCode() + "\"";
+
+        mvc.perform(get("/projects"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", etag))
+                .andExpect(header().string("Cache-Control", "no-cache, private"));
+
+        mvc.perform(get("/projects").header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        Mockito.when(projectService.findAll()).thenReturn(List.of());
+        mvc.perform(get("/projects").header("If-None-Match", etag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void delete_returns204() throws Exception {
+        mvc.perform(delete("/projects/3"))
+                .andExpect(status().isNoContent());
+
+        Mockito.verify(projectService).delete(3L);
+    }
+
     @Test
     void create_returns201_and_body() throws Exception {
         var req = new ProjectCreateDto("New", "d");
@@ -100,5 +129,4 @@ class ProjectControllerTest {
                         .content(objectMapper.writeValueAsString(req)))
                 .andExpect(status().isInternalServerError());
     }
-
 }
@@ -33,7 +33,9 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 @WebMvcTest(controllers = { ProjectController.class, TaskController.class, UserController.class })
 @AutoConfigureMockMvc(addFilters = true)
 @TestPropertySource(properties = {
-        "app.jwt.secret=testsecret_please_change_me_0123456789"
+        "app.jwt.secret=testsecret_please_change_me_0123456789",
+        "server.port=8080",
+        "management.server.port=9001"
 })
 @org.springframework.context.annotation.Import(SecurityConfig.class)
 class SecurityRbacTest {
@@ -47,12 +49,15 @@ class SecurityRbacTest {
     // Mock application services used by controllers
     @MockBean ProjectService projectService;
     @MockBean TaskService taskService;
+    @MockBean com.example.taskmanager.service.TaskChangeService taskChangeService;
     @MockBean UserService userService;
     // Mock MapStruct mapper required by UserController in this slice context
     @MockBean com.example.taskmanager.mapper.UserMapper userMapper;
 
     // Ensure JWT filter doesn't short-circuit the chain in this RBAC test
     @MockBean com.example.taskmanager.security.JwtAuthFilter jwtAuthFilter;
+    // The bounded encoder needs a MeterRegistry, which this slice does not provide
+    @MockBean org.springframework.security.crypto.password.PasswordEncoder passwordEncoder;
 
     @org.junit.jupiter.api.BeforeEach
     void setupJwtPassThrough() throws Exception {
@@ -65,6 +70,38 @@ class SecurityRbacTest {
         }).when(jwtAuthFilter).doFilter(org.mockito.ArgumentMatchers.any(), org.mockito.ArgumentMatchers.any(), org.mockito.ArgumentMatchers.any());
     }
 
+    @Test
+    void metrics_endpoints_require_ADMIN_while_health_stays_public() throws Exception {
+        // Actuator endpoints are not part of this slice, so an authorized request gets past security
+        // and then finds no handler; only 401/403 would mean it was stopped
+        org.springframework.test.web.servlet.ResultMatcher passedSecurity = result -> org.junit.jupiter.api.Assertions
+                .assertFalse(java.util.Set.of(401, 403).contains(result.getResponse().getStatus()));
+        for (String url : new String[] {"/actuator/prometheus", "/actuator/metrics", "/actuator/metrics/jvm.memory.used"}) {
+            mvc.perform(get(url)).andExpect(status().isUnauthorized());
+            mvc.perform(get(url).with(SecurityMockMvcRequestPostProcessors.user("u").roles("USER")))
+                    .andExpect(status().isForbidden());
+            mvc.perform(get(url).with(SecurityMockMvcRequestPostProcessors.user("m").roles("MODERATOR")))
+                    .andExpect(status().isForbidden());
+            mvc.perform(get(url).with(SecurityMockMvcRequestPostProcessors.user("a").roles("ADMIN")))
+                    .andExpect(passedSecurity);
+        }
+        mvc.perform(get("/actuator/health")).andExpect(passedSecurity);
+    }
+
+    @Test
+    void metrics_on_the_management_port_need_no_token() throws Exception {
+        org.springframework.test.web.servlet.ResultMatcher passedSecurity = result -> org.junit.jupiter.api.Assertions
+                .assertFalse(java.util.Set.of(401, 403).contains(result.getResponse().getStatus()));
+        org.springframework.test.web.servlet.request.RequestPostProcessor managementPort = req -> {
+            req.setLocalPort(9001);
+            return req;
+        };
+        mvc.perform(get("/actuator/prometheus").with(managementPort)).andExpect(passedSecurity);
+        // The application port still requires ADMIN
+        mvc.perform(get("/actuator/prometheus").with(req -> { req.setLocalPort(8080); return req; }))
+                .andExpect(status().isUnauthorized());
+    }
+
     @Test
     void post_projects_forbidden_for_USER_allowed_for_ADMIN() throws Exception {
         var body = new ProjectCreateDto("New", "d");
@@ -133,6 +170,27 @@ class SecurityRbacTest {
                 .andExpect(status().isCreated());
     }
 
+    @Test
+    void post_task_batch_forbidden_for_USER_allowed_for_MODERATOR() throws Exception {
+        var batch = new com.example.taskmanager.dto.TaskBatchRequest(null, null, java.util.List.of(3L));
+        Mockito.when(taskService.applyBatch(eq(1L), any()))
+                .thenReturn(new com.example.taskmanager.dto.TaskBatchResult(java.util.List.of(), java.util.List.of(), java.util.List.of(3L)));
+
+        // USER -> 403
+        mvc.perform(post("/projects/1/tasks:batch")
+                        .with(SecurityMockMvcRequestPostProcessors.user("u").roles("USER"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(batch)))
+                .andExpect(status().isForbidden());
+
+        // MODERATOR -> 200
+        mvc.perform(post("/projects/1/tasks:batch")
+                        .with(SecurityMockMvcRequestPostProcessors.user("mod").roles("MODERATOR"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(batch)))
+                .andExpect(status().isOk());
+    }
+
     @Test
     void put_and_delete_tasks_forbidden_for_USER_allowed_for_MODERATOR_and_ADMIN() throws Exception {
         var req = new TaskUpdateDto("Upd", null, TaskStatus.IN_PROGRESS, null);
@@ -165,4 +223,33 @@ class SecurityRbacTest {
                 .andExpect(status().isNoContent());
         Mockito.verify(taskService, Mockito.times(1)).delete(9L);
     }
+
+    @Test
+    void export_completes_on_async_dispatch_which_the_jwt_filter_skips() throws Exception {
+        // Like the real JwtAuthFilter (a OncePerRequestFilter), authenticate the initial dispatch only
+        org.mockito.Mockito.doAnswer(invocation -> {
+            jakarta.servlet.http.HttpServletRequest req = invocation.getArgument(0);
+            if (req.getDispatcherType() == jakarta.servlet.DispatcherType.REQUEST) {
+                org.springframework.security.core.context.SecurityContextHolder.getContext().setAuthentication(
+                        new org.springframework.security.authentication.UsernamePasswordAuthenticationToken("u", null,
+                                java.util.List.of(new org.springframework.security.core.authority.SimpleGrantedAuthority("ROLE_USER"))));
+            }
+            jakarta.servlet.FilterChain chain = invocation.getArgument(2);
+            chain.doFilter(req, invocation.getArgument(1));
+            return null;
+        }).when(jwtAuthFilter).doFilter(any(), any(), any());
+        Mockito.doAnswer(invocation -> {
+            java.util.function.Consumer<TaskDto> sink = invocation.getArgument(1);
+            sink.accept(new TaskDto(1L, "A", null, TaskStatus.TODO, null, 1L));
+            return null;
+        }).when(taskService).exportByProject(eq(1L), any());
+
+        var started = mvc.perform(get("/projects/1/tasks/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().string(org.hamcrest.Matchers.matchesPattern("\\{\"id\":1,.*\\}\n")));
+    }
 }
@@ -0,0 +1,134 @@
+package com.example.taskmanager.controller;
+
+import com.example.taskmanager.support.PostgresTestDatabase;
+import com.example.taskmanager.web.StatementBudget;
+import com.example.taskmanager.web.StatementCountFilter;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Calls every controller endpoint against Postgres with enough rows that a per-row query would show,
+ * then checks that none ran more SQL statements than its {@link StatementBudget}.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class StatementBudgetIT {
+
+    static final int ROWS = 50;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        PostgresTestDatabase.register(registry);
+    }
+
+    @LocalServerPort int port;
+    @Autowired MeterRegistry registry;
+    @Autowired @Qualifier("requestMappingHandlerMapping") RequestMappingHandlerMapping mappings;
+
+    final HttpClient http = HttpClient.newHttpClient();
+    final ObjectMapper json = new ObjectMapper();
+    String token;
+
+    @Test
+    void everyEndpointStaysWithinItsStatementBudget() throws Exception {
+        call("POST", "/register", "{\"username\":\"budget-admin\",\"password\":\"secret\",\"role\":\"ROLE_ADMIN\"}");
+        JsonNode login = call("POST", "/login", "{\"username\":\"budget-admin\",\"password\":\"secret\"}");
+        JsonNode refreshed = call("POST", "/token/refresh", "{\"refreshToken\":\"" + login.get("refreshToken").asText() + "\"}");
+        token = refreshed.get("token").asText();
+
+        long projectId = call("POST", "/projects", "{\"name\":\"budget\"}").get("id").asLong();
+        String tasks = "/projects/" + projectId + "/tasks";
+        JsonNode created = call("POST", tasks + ":batch", "{\"create\":[" + IntStream.range(0, ROWS)
+                .mapToObj(i -> "{\"title\":\"t" + i + "\",\"status\":\"TODO\"}")
+                .collect(Collectors.joining(",")) + "]}").get("created");
+        List<Long> ids = new ArrayList<>();
+        created.forEach(t -> ids.add(t.get("id").asLong()));
+        long taskId = call("POST", tasks, "{\"title\":\"single\",\"status\":\"TODO\"}").get("id").asLong();
+
+        call("GET", tasks, null);
+        call("GET", tasks + "?status=TODO&expiredNotified=false&deadlineFrom=" + Instant.now().minusSeconds(60), null);
+        call("GET", tasks + "/export", null);
+        call("GET", tasks + "/changes?since=" + Instant.now().minusSeconds(60), null);
+        call("GET", "/tasks/" + taskId, null);
+        call("PUT", "/tasks/" + taskId, "{\"title\":\"renamed\",\"status\":\"DONE\"}");
+        call("POST", tasks + ":batch", "{\"update\":[" + ids.subList(0, ROWS / 2).stream()
+                .map(id -> "{\"id\":" + id + ",\"title\":\"u\",\"status\":\"IN_PROGRESS\"}")
+                .collect(Collectors.joining(",")) + "],\"delete\":" + ids.subList(ROWS / 2, ROWS) + "}");
+        call("DELETE", "/tasks/" + taskId, null);
+        call("GET", "/projects", null);
+
+        long userId = call("POST", "/users", "{\"username\":\"budget-user\",\"password\":\"secret\",\"role\":\"ROLE_USER\"}")
+                .get("id").asLong();
+        call("GET", "/users", null);
+        call("PUT", "/users/" + userId + "/password", "{\"password\":\"changed\"}");
+        call("PUT", "/users/" + userId + "/role", "{\"role\":\"ROLE_MODERATOR\"}");
+        call("DELETE", "/users/" + userId, null);
+
+        call("DELETE", "/projects/" + projectId, null);
+        call("POST", "/token/revoke", "{\"refreshToken\":\"" + refreshed.get("refreshToken").asText() + "\"}");
+
+        List<String> missing = new ArrayList<>();
+        for (Map.Entry<RequestMappingInfo, HandlerMethod> e : mappings.getHandlerMethods().entrySet()) {
+            if (!e.getValue().getBeanType().getPackageName().equals(getClass().getPackageName())) {
+                continue;
+            }
+            for (RequestMethod method : e.getKey().getMethodsCondition().getMethods()) {
+                for (String uri : e.getKey().getPatternValues()) {
+                    DistributionSummary statements = registry.find(StatementCountFilter.METRIC)
+                            .tags("method", method.name(), "uri", uri).summary();
+                    if (statements == null) {
+                        missing.add(method + " " + uri);
+                    } else {
+                        System.out.printf("%-6s %-40s %3.0f statements per call (budget %d)%n", method, uri,
+                                statements.totalAmount() / statements.count(),
+                                e.getValue().getMethodAnnotation(StatementBudget.class).value());
+                    }
+                }
+            }
+        }
+        assertEquals(List.of(), missing, "endpoints not exercised");
+
+        List<String> overBudget = registry.find(StatementCountFilter.OVER_BUDGET_METRIC).counters().stream()
+                .map(c -> c.getId().getTag("method") + " " + c.getId().getTag("uri") + " x" + (long) c.count())
+                .toList();
+        assertEquals(List.of(), overBudget, "endpoints over their statement budget");
+    }
+
+    private JsonNode call(String method, String path, String body) throws Exception {
+        HttpRequest.Builder req = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header("Content-Type", "application/json")
+                .method(method, body == null ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofString(body));
+        if (token != null) {
+            req.header("Authorization", "Bearer " + token);
+        }
+        HttpResponse<String> res = http.send(req.build(), HttpResponse.BodyHandlers.ofString());
+        assertTrue(res.statusCode() < 300, method + " " + path + " -> " + res.statusCode() + " " + res.body());
+        return res.body().isEmpty() || !res.body().startsWith("{") ? null : json.readTree(res.body());
+    }
+}
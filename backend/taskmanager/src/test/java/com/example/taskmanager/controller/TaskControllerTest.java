@@ -1,10 +1,16 @@
 package com.example.taskmanager.controller;
 
+import com.example.taskmanager.dto.TaskBatchRequest;
+import com.example.taskmanager.dto.TaskBatchResult;
+import com.example.taskmanager.dto.TaskChanges;
 import com.example.taskmanager.dto.TaskCreateDto;
 import com.example.taskmanager.dto.TaskDto;
+import com.example.taskmanager.dto.TaskFilter;
+import com.example.taskmanager.dto.TaskPage;
 import com.example.taskmanager.dto.TaskUpdateDto;
 import com.example.taskmanager.enums.TaskStatus;
 import com.example.taskmanager.security.JwtAuthFilter;
+import com.example.taskmanager.service.TaskChangeService;
 import com.example.taskmanager.service.TaskService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
@@ -17,6 +23,7 @@ import org.springframework.test.web.servlet.MockMvc;
 
 import jakarta.annotation.Resource;
 
+import java.time.Instant;
 import java.util.List;
 import static org.mockito.ArgumentMatchers.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -35,6 +42,9 @@ class TaskControllerTest {
     @MockBean
     private TaskService taskService;
 
+    @MockBean
+    private TaskChangeService taskChangeService;
+
     // Mock security filter to avoid loading full security context in slice tests
     @MockBean
     private JwtAuthFilter jwtAuthFilter;
@@ -42,14 +52,127 @@ class TaskControllerTest {
     @Test
     void list_by_project_returns_tasks() throws Exception {
         var t = new TaskDto(10L, "Do it", null, TaskStatus.TODO, null, 1L);
-        Mockito.when(taskService.findByProject(1L)).thenReturn(List.of(t));
+        Mockito.when(taskService.findByProject(eq(1L), eq(TaskFilter.none()), isNull(), eq(200)))
+                .thenReturn(new TaskPage(List.of(t), null));
 
         mvc.perform(get("/projects/1/tasks"))
                 .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Next-Cursor"))
                 .andExpect(jsonPath("$[0].id").value(10))
                 .andExpect(jsonPath("$[0].title").value("Do it"));
     }
 
+    @Test
+    void list_by_project_passes_cursor_filters_and_caps_limit() throws Exception {
+        var t = new TaskDto(31L, "Late", null, TaskStatus.IN_PROGRESS, null, 1L);
+        var filter = new TaskFilter(TaskStatus.IN_PROGRESS, Instant.parse("2025-01-01T00:00:00Z"), null, true);
+        Mockito.when(taskService.findByProject(1L, filter, 30L, 1000))
+                .thenReturn(new TaskPage(List.of(t), 31L));
+
+        mvc.perform(get("/projects/1/tasks")
+                        .param("after", "30")
+                        .param("limit", "50000")
+                        .param("status", "IN_PROGRESS")
+                        .param("deadlineFrom", "2025-01-01T00:00:00Z")
+                        .param("expiredNotified", "true"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", "31"))
+                .andExpect(jsonPath("$[0].id").value(31));
+    }
+
+    @Test
+    void list_by_project_etag_covers_the_query_and_returns_304_when_it_matches() throws Exception {
+        Mockito.when(taskService.listVersion(1L)).thenReturn(42L);
+        Mockito.when(taskService.findByProject(any(), any(), any(), anyInt())).thenReturn(new TaskPage(List.of(), null));
+        String etag = mvc.perform(get("/projects/1/tasks?status=DONE"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mvc.perform(get("/projects/1/tasks?status=DONE").header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", etag));
+        Mockito.verify(taskService, Mockito.times(1)).findByProject(any(), any(), any(), anyInt());
+
+        // Same project version, different query: a different body, so a different ETag
+        for (String query : List.of("?status=TODO", "?status=DONE&after=5", "?status=DONE&limit=10", "")) {
+            mvc.perform(get("/projects/1/tasks" + query).header("If-None-Match", etag))
+                    .andExpect(status().isOk());
+        }
+    }
+
+    @Test
+    void get_one_sends_version_etag_and_returns_304_when_unchanged() throws Exception {
+        Mockito.when(taskService.version(5L)).thenReturn(3L);
+        Mockito.when(taskService.get(5L)).thenReturn(new TaskDto(5L, "T", null, TaskStatus.TODO, null, 1L));
+
+        mvc.perform(get("/tasks/5"))
+                .andExpect(status().isOk())
+                .andExpect(header().stringValues("ETag", "\"task-5-3\""))
+                .andExpect(jsonPath("$.id").value(5));
+
+        mvc.perform(get("/tasks/5").header("If-None-Match", "\"task-5-2\", \"task-5-3\""))
+                .andExpect(status().isNotModified());
+
+        Mockito.verify(taskService, Mockito.times(1)).get(5L);
+    }
+
+    @Test
+    void export_streams_ndjson_lines() throws Exception {
+        Mockito.doAnswer(inv -> {
+            java.util.function.Consumer<TaskDto> sink = inv.getArgument(1);
+            sink.accept(new TaskDto(1L, "A", null, TaskStatus.TODO, null, 1L));
+            sink.accept(new TaskDto(2L, "B", null, TaskStatus.DONE, null, 1L));
+            return null;
+        }).when(taskService).exportByProject(eq(1L), any());
+
+        var result = mvc.perform(get("/projects/1/tasks/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        var body = mvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString();
+        var lines = body.split("\n");
+        org.junit.jupiter.api.Assertions.assertEquals(2, lines.length);
+        org.junit.jupiter.api.Assertions.assertEquals(2, objectMapper.readTree(lines[1]).get("id").asInt());
+    }
+
+    @Test
+    void export_streams_csv_with_escaping() throws Exception {
+        Mockito.doAnswer(inv -> {
+            java.util.function.Consumer<TaskDto> sink = inv.getArgument(1);
+            sink.accept(new TaskDto(1L, "Hello, \"world\"", null, TaskStatus.TODO, null, 1L));
+            return null;
+        }).when(taskService).exportByProject(eq(1L), any());
+
+        var result = mvc.perform(get("/projects/1/tasks/export").param("format", "csv"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Disposition", org.hamcrest.Matchers.containsString("project-1-tasks.csv")))
+                .andExpect(content().string("id,title,description,status,deadline,projectId\n"
+                        + "1,\"Hello, \"\"world\"\"\",,TODO,,1\n"));
+    }
+
+    @Test
+    void export_404_before_streaming_when_project_missing() throws Exception {
+        Mockito.doThrow(new org.springframework.web.server.ResponseStatusException(org.springframework.http.HttpStatus.NOT_FOUND, "Project not found"))
+                .when(taskService).ensureProjectExists(999L);
+
+        mvc.perform(get("/projects/999/tasks/export"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.status").value(404));
+        Mockito.verify(taskService, Mockito.never()).exportByProject(any(), any());
+    }
+
+    @Test
+    void export_400_for_unknown_format() throws Exception {
+        mvc.perform(get("/projects/1/tasks/export").param("format", "xml"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void create_task_returns201() throws Exception {
         var req = new TaskCreateDto("New", "x", TaskStatus.TODO, null);
@@ -88,7 +211,7 @@ class TaskControllerTest {
 
     @Test
     void list_by_project_404_when_project_missing() throws Exception {
-        Mockito.when(taskService.findByProject(999L))
+        Mockito.when(taskService.findByProject(eq(999L), any(TaskFilter.class), any(), anyInt()))
                 .thenThrow(new org.springframework.web.server.ResponseStatusException(org.springframework.http.HttpStatus.NOT_FOUND, "Project not found"));
 
         mvc.perform(get("/projects/999/tasks"))
@@ -132,4 +255,81 @@ class TaskControllerTest {
                 .andExpect(jsonPath("$.status").value(404));
     }
 
+    @Test
+    void changes_returns_changed_and_deleted_with_new_watermark() throws Exception {
+        var since = Instant.parse("2025-03-01T10:00:00Z");
+        var t = new TaskDto(5L, "Edited", null, TaskStatus.DONE, null, 1L);
+        Mockito.when(taskChangeService.changesSince(1L, since))
+                .thenReturn(new TaskChanges(List.of(t), List.of(7L, 8L), Instant.parse("2025-03-01T10:05:00Z")));
+
+        mvc.perform(get("/projects/1/tasks/changes").param("since", "2025-03-01T10:00:00Z"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changed[0].id").value(5))
+                .andExpect(jsonPath("$.deleted[1]").value(8))
+                .andExpect(jsonPath("$.watermark").value("2025-03-01T10:05:00Z"));
+    }
+
+    @Test
+    void changes_410_when_watermark_is_past_retention() throws Exception {
+        Mockito.when(taskChangeService.changesSince(eq(1L), any()))
+                .thenThrow(new org.springframework.web.server.ResponseStatusException(org.springframework.http.HttpStatus.GONE, "Watermark is too old"));
+
+        mvc.perform(get("/projects/1/tasks/changes").param("since", "2020-01-01T00:00:00Z"))
+                .andExpect(status().isGone())
+                .andExpect(jsonPath("$.status").value(410));
+    }
+
+    @Test
+    void batch_applies_operations() throws Exception {
+        var created = new TaskDto(40L, "A", null, TaskStatus.TODO, null, 1L);
+        Mockito.when(taskService.applyBatch(eq(1L), any(TaskBatchRequest.class)))
+                .thenReturn(new TaskBatchResult(List.of(created), List.of(), List.of(9L)));
+
+        mvc.perform(post("/projects/1/tasks:batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"create\":[{\"title\":\"A\",\"status\":\"TODO\"}],\"delete\":[9]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created[0].id").value(40))
+                .andExpect(jsonPath("$.deleted[0]").value(9));
+    }
+
+    @Test
+    void batch_400_when_an_operation_is_invalid() throws Exception {
+        mvc.perform(post("/projects/1/tasks:batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"update\":[{\"id\":5,\"title\":\"\",\"status\":\"TODO\"}]}"))
+                .andExpect(status().isBadRequest());
+        Mockito.verify(taskService, Mockito.never()).applyBatch(any(), any());
+    }
+
+    @Test
+    void create_update_and_batch_400_when_title_longer_than_column() throws Exception {
+        String title = "x".repeat(151);
+
+        mvc.perform(post("/projects/1/tasks")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new TaskCreateDto(title, null, TaskStatus.TODO, null))))
+                .andExpect(status().isBadRequest());
+        mvc.perform(put("/tasks/5")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new TaskUpdateDto(title, null, TaskStatus.TODO, null))))
+                .andExpect(status().isBadRequest());
+        mvc.perform(post("/projects/1/tasks:batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"update\":[{\"id\":5,\"title\":\"" + title + "\",\"status\":\"TODO\"}]}"))
+                .andExpect(status().isBadRequest());
+        Mockito.verifyNoInteractions(taskService);
+    }
+
+    @Test
+    void batch_400_when_over_operation_limit() throws Exception {
+        var ids = java.util.stream.LongStream.rangeClosed(1, 501).boxed().toList();
+
+        mvc.perform(post("/projects/1/tasks:batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new TaskBatchRequest(null, null, ids))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("At most 500 operations per batch"));
+        Mockito.verify(taskService, Mockito.never()).applyBatch(any(), any());
+    }
 }
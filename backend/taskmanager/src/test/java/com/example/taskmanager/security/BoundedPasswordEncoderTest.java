@@ -0,0 +1,86 @@
+package com.example.taskmanager.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedPasswordEncoderTest {
+
+    final CountDownLatch release = new CountDownLatch(1);
+    final CountDownLatch started = new CountDownLatch(1);
+    final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    // matches() blocks until released, standing in for a slow hash
+    final PasswordEncoder slow = new PasswordEncoder() {
+        @Override
+        public String encode(CharSequence raw) {
+            return "enc:" + raw;
+        }
+
+        @Override
+        public boolean matches(CharSequence raw, String encoded) {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return encoded.equals("enc:" + raw);
+        }
+    };
+
+    BoundedPasswordEncoder encoder;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        encoder.close();
+    }
+
+    @Test
+    void delegatesAndRecordsHashLatency() {
+        encoder = new BoundedPasswordEncoder(slow, 1, 1, Duration.ofSeconds(5), registry);
+        release.countDown();
+
+        assertEquals("enc:pw", encoder.encode("pw"));
+        assertTrue(encoder.matches("pw", "enc:pw"));
+        assertEquals(1, registry.get("auth.password.hash").tag("op", "matches").timer().count());
+    }
+
+    @Test
+    void saturatedPool_failsFastWith503() throws Exception {
+        encoder = new BoundedPasswordEncoder(slow, 1, 1, Duration.ofSeconds(5), registry);
+        CompletableFuture<Boolean> running = CompletableFuture.supplyAsync(() -> encoder.matches("a", "enc:a"));
+        assertTrue(started.await(2, TimeUnit.SECONDS));
+        CompletableFuture<Boolean> queued = CompletableFuture.supplyAsync(() -> encoder.matches("b", "enc:b"));
+        // Wait until the second check occupies the single queue slot
+        for (int i = 0; i < 100 && registry.get("auth.password.hash.queue").gauge().value() < 1; i++) {
+            Thread.sleep(10);
+        }
+
+        var ex = assertThrows(ResponseStatusException.class, () -> encoder.matches("c", "enc:c"));
+        assertEquals(503, ex.getStatusCode().value());
+        assertEquals(1.0, registry.get("auth.login.rejected").tag("reason", "hashing_busy").counter().count());
+
+        release.countDown();
+        assertTrue(running.get(2, TimeUnit.SECONDS));
+        assertTrue(queued.get(2, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void waitingPastTimeout_gives503() {
+        encoder = new BoundedPasswordEncoder(slow, 1, 1, Duration.ofMillis(50), registry);
+
+        var ex = assertThrows(ResponseStatusException.class, () -> encoder.matches("a", "enc:a"));
+        assertEquals(503, ex.getStatusCode().value());
+    }
+}
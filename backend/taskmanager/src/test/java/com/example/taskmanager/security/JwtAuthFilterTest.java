@@ -0,0 +1,92 @@
+package com.example.taskmanager.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class JwtAuthFilterTest {
+
+    @Mock UserDetailsService uds;
+    @Mock PrincipalCache principals;
+    @Mock TokenRevocations revocations;
+    @Mock TokenVersions versions;
+
+    final JwtUtil jwt = new JwtUtil("testsecret_please_change_me_0123456789", 60_000, new SimpleMeterRegistry());
+    JwtAuthFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new JwtAuthFilter(jwt, uds, principals, revocations, versions, true);
+    }
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void trustRoleClaim_authorizesFromTokenWithoutLoadingUser() throws Exception {
+        when(versions.isCurrent("eleni", 2)).thenReturn(true);
+
+        Authentication auth = authenticate(jwt.generateToken("eleni", "ROLE_MODERATOR", "fam", 2));
+
+        assertEquals("eleni", auth.getName());
+        assertEquals("ROLE_MODERATOR", auth.getAuthorities().stream().map(GrantedAuthority::getAuthority).findFirst().orElseThrow());
+        verifyNoInteractions(uds, principals);
+    }
+
+    @Test
+    void trustRoleClaim_rejectsOutdatedVersionAndRevokedFamily() throws Exception {
+        when(versions.isCurrent("eleni", 1)).thenReturn(false);
+        assertNull(authenticate(jwt.generateToken("eleni", "ROLE_ADMIN", "fam", 1)));
+
+        when(versions.isCurrent("eleni", 2)).thenReturn(true);
+        when(revocations.isRevoked("fam")).thenReturn(true);
+        assertNull(authenticate(jwt.generateToken("eleni", "ROLE_ADMIN", "fam", 2)));
+
+        verify(uds, never()).loadUserByUsername(any());
+    }
+
+    @Test
+    void cachedPrincipal_isRejectedOnceItsFamilyIsRevoked() throws Exception {
+        var cache = new PrincipalCache(100, new SimpleMeterRegistry());
+        filter = new JwtAuthFilter(jwt, uds, cache, revocations, versions, false);
+        when(uds.loadUserByUsername("eleni")).thenReturn(new User("eleni", "x", List.of()));
+        String token = jwt.generateToken("eleni", "ROLE_USER", "fam", 0);
+
+        assertEquals("eleni", authenticate(token).getName());
+        assertEquals("eleni", authenticate(token).getName());
+        verify(uds, times(1)).loadUserByUsername("eleni");
+
+        // Logout revokes the family; the access token is still cached and unexpired
+        when(revocations.isRevoked("fam")).thenReturn(true);
+        assertNull(authenticate(token));
+    }
+
+    private Authentication authenticate(String token) throws Exception {
+        SecurityContextHolder.clearContext();
+        var req = new MockHttpServletRequest();
+        req.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(req, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+}
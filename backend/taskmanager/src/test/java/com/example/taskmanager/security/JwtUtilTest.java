@@ -0,0 +1,74 @@
+package com.example.taskmanager.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtUtilTest {
+
+    private static final String SECRET = "testsecret_please_change_me_0123456789";
+
+    @Test
+    void validate_returnsSubjectRoleAndExpiry() {
+        var jwt = new JwtUtil(SECRET, 60_000, new SimpleMeterRegistry());
+        String token = jwt.generateToken("eleni", "ROLE_ADMIN");
+
+        var claims = jwt.validate(token).orElseThrow();
+
+        assertEquals("eleni", claims.subject());
+        assertEquals("ROLE_ADMIN", claims.role());
+        assertTrue(claims.expiresAt().isAfter(Instant.now()));
+        assertTrue(jwt.isTokenValid(token, "eleni"));
+        assertFalse(jwt.isTokenValid(token, "nikos"));
+    }
+
+    @Test
+    void validate_rejectsExpiredTamperedAndForeignTokens() {
+        var jwt = new JwtUtil(SECRET, 60_000, new SimpleMeterRegistry());
+        String token = jwt.generateToken("eleni", "ROLE_USER");
+
+        var expired = new JwtUtil(SECRET, -1_000, new SimpleMeterRegistry());
+        assertTrue(expired.validate(expired.generateToken("eleni", "ROLE_USER")).isEmpty());
+        assertTrue(jwt.validate(token.substring(0, token.length() - 2) + "xx").isEmpty());
+        assertTrue(new JwtUtil("another_secret_of_at_least_32_chars!!", 60_000, new SimpleMeterRegistry()).validate(token).isEmpty());
+        assertTrue(jwt.validate("not-a-jwt").isEmpty());
+    }
+
+    @Test
+    void refreshTokens_areNotAccessTokens_andCarryFamilyAndGeneration() {
+        var jwt = new JwtUtil(SECRET, 60_000, new SimpleMeterRegistry());
+        Instant exp = Instant.now().plusSeconds(3600);
+        String refresh = jwt.generateRefreshToken("eleni", "fam-1", 3, exp);
+
+        assertTrue(jwt.validate(refresh).isEmpty());
+        var claims = jwt.validateRefresh(refresh).orElseThrow();
+        assertEquals("eleni", claims.subject());
+        assertEquals("fam-1", claims.family());
+        assertEquals(3, claims.generation());
+
+        String access = jwt.generateToken("eleni", "ROLE_USER", "fam-1", 4);
+        var accessClaims = jwt.validate(access).orElseThrow();
+        assertEquals("fam-1", accessClaims.family());
+        assertEquals(4, accessClaims.version());
+        assertTrue(jwt.validateRefresh(access).isEmpty());
+    }
+
+    @Test
+    void validation_isTimedByTokenTypeAndResult() {
+        var registry = new SimpleMeterRegistry();
+        var jwt = new JwtUtil(SECRET, 60_000, registry);
+        String access = jwt.generateToken("eleni", "ROLE_USER");
+
+        jwt.validate(access);
+        jwt.validate(access);
+        jwt.validate("not-a-jwt");
+        jwt.validateRefresh(access);
+
+        assertEquals(2, registry.get("jwt.validation").tags("type", "access", "result", "valid").timer().count());
+        assertEquals(1, registry.get("jwt.validation").tags("type", "access", "result", "invalid").timer().count());
+        assertEquals(1, registry.get("jwt.validation").tags("type", "refresh", "result", "invalid").timer().count());
+    }
+}
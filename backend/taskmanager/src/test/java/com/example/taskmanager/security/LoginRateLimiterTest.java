@@ -0,0 +1,52 @@
+package com.example.taskmanager.security;
+
+import com.example.taskmanager.web.TooManyRequestsException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoginRateLimiterTest {
+
+    final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void perUsernameLimit_returns429WithRetryAfter() {
+        var limiter = new LoginRateLimiter(Duration.ofMinutes(1), 2, 100, 1000, registry);
+        limiter.check("eleni", "10.0.0.1");
+        limiter.check("Eleni", "10.0.0.2");
+
+        var ex = assertThrows(TooManyRequestsException.class, () -> limiter.check("eleni", "10.0.0.3"));
+        assertEquals(429, ex.getStatusCode().value());
+        long retryAfter = Long.parseLong(ex.getHeaders().getFirst("Retry-After"));
+        assertTrue(retryAfter >= 1 && retryAfter <= 61);
+        assertEquals(1.0, registry.get("auth.login.rejected").tag("reason", "rate_limited_username").counter().count());
+
+        // Other users are unaffected
+        limiter.check("nikos", "10.0.0.3");
+    }
+
+    @Test
+    void perIpLimit_appliesAcrossUsernames() {
+        var limiter = new LoginRateLimiter(Duration.ofMinutes(1), 100, 3, 1000, registry);
+        limiter.check("a", "10.0.0.1");
+        limiter.check("b", "10.0.0.1");
+        limiter.check("c", "10.0.0.1");
+
+        assertThrows(TooManyRequestsException.class, () -> limiter.check("d", "10.0.0.1"));
+        limiter.check("d", "10.0.0.2");
+        assertEquals(1.0, registry.get("auth.login.rejected").tag("reason", "rate_limited_ip").counter().count());
+    }
+
+    @Test
+    void windowExpiry_resetsCounts() throws Exception {
+        var limiter = new LoginRateLimiter(Duration.ofMillis(100), 1, 100, 1000, registry);
+        limiter.check("eleni", "10.0.0.1");
+        assertThrows(TooManyRequestsException.class, () -> limiter.check("eleni", "10.0.0.1"));
+
+        Thread.sleep(150);
+        limiter.check("eleni", "10.0.0.1");
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.taskmanager.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PrincipalCacheTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final PrincipalCache cache = new PrincipalCache(100, registry);
+
+    @Test
+    void put_then_get_returnsPrincipal_andRecordsHitsAndMisses() {
+        var user = new User("eleni", "x", List.of(() -> "ROLE_USER"));
+
+        assertNull(cache.get("token-a"));
+        cache.put("token-a", user, "fam", Instant.now().plusSeconds(60));
+
+        assertSame(user, cache.get("token-a").user());
+        assertEquals(1.0, registry.get("cache.gets").tag("cache", "jwt.principals").tag("result", "hit").functionCounter().count());
+        assertEquals(1.0, registry.get("cache.gets").tag("cache", "jwt.principals").tag("result", "miss").functionCounter().count());
+    }
+
+    @Test
+    void put_ignoresAlreadyExpiredTokens() {
+        cache.put("old", new User("eleni", "x", List.of()), "fam", Instant.now().minusSeconds(1));
+        assertNull(cache.get("old"));
+    }
+
+    @Test
+    void evictUser_dropsAllTokensOfThatUserOnly() {
+        var exp = Instant.now().plusSeconds(60);
+        cache.put("t1", new User("eleni", "x", List.of()), "fam", exp);
+        cache.put("t2", new User("eleni", "x", List.of()), "fam", exp);
+        cache.put("t3", new User("nikos", "x", List.of()), "fam", exp);
+
+        cache.evictUser("eleni");
+
+        assertNull(cache.get("t1"));
+        assertNull(cache.get("t2"));
+        assertNotNull(cache.get("t3"));
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.taskmanager.security;
+
+import com.example.taskmanager.repository.TokenFamilyRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TokenRevocationsTest {
+
+    @Mock TokenFamilyRepository families;
+
+    TokenRevocations revocations;
+
+    @BeforeEach
+    void setUp() {
+        revocations = new TokenRevocations(families, 1000, 0.01, Duration.ofSeconds(10), new SimpleMeterRegistry());
+    }
+
+    @Test
+    void unknownFamilies_areAnsweredWithoutQueries() {
+        for (int i = 0; i < 1000; i++) {
+            assertFalse(revocations.isRevoked("family-" + i));
+        }
+        assertFalse(revocations.isRevoked(null));
+        verifyNoInteractions(families);
+    }
+
+    @Test
+    void revokedFamily_isConfirmedAgainstTheTable() {
+        when(families.revokeByUsername("eleni")).thenReturn(List.of("a", "b"));
+        when(families.existsByIdAndRevokedAtIsNotNull("a")).thenReturn(true);
+
+        revocations.revokeUser("eleni");
+
+        assertTrue(revocations.isRevoked("a"));
+    }
+
+    @Test
+    void sync_picksUpRevocationsFromOtherNodes() {
+        when(families.findRevokedSince(any(), any())).thenReturn(List.of()).thenReturn(List.of("remote"));
+        when(families.existsByIdAndRevokedAtIsNotNull("remote")).thenReturn(true);
+
+        revocations.sync(); // initial full load
+        assertFalse(revocations.isRevoked("remote"));
+        revocations.sync(); // incremental
+        assertTrue(revocations.isRevoked("remote"));
+    }
+}
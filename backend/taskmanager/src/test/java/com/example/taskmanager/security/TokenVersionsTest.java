@@ -0,0 +1,70 @@
+package com.example.taskmanager.security;
+
+import com.example.taskmanager.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TokenVersionsTest {
+
+    @Mock UserRepository users;
+
+    TokenVersions versions;
+
+    @BeforeEach
+    void setUp() {
+        versions = new TokenVersions(users, 100, Duration.ofMinutes(1), new SimpleMeterRegistry());
+    }
+
+    @Test
+    void isCurrent_queriesOncePerUser() {
+        when(users.findTokenVersion("eleni")).thenReturn(Optional.of(3));
+
+        for (int i = 0; i < 100; i++) {
+            assertTrue(versions.isCurrent("eleni", 3));
+        }
+        assertFalse(versions.isCurrent("eleni", 2));
+        assertFalse(versions.isCurrent("eleni", null));
+        verify(users, times(1)).findTokenVersion("eleni");
+    }
+
+    @Test
+    void localChanges_applyImmediately() {
+        when(users.findTokenVersion("eleni")).thenReturn(Optional.of(0));
+        assertTrue(versions.isCurrent("eleni", 0));
+
+        versions.changed("eleni", 1);
+        assertFalse(versions.isCurrent("eleni", 0));
+        assertTrue(versions.isCurrent("eleni", 1));
+
+        versions.removed("eleni");
+        assertFalse(versions.isCurrent("eleni", 1));
+    }
+
+    @Test
+    void isCurrent_comparesVersionsByValue() {
+        // Beyond the Integer cache (-128..127), equal versions are distinct boxes
+        when(users.findTokenVersion("eleni")).thenReturn(Optional.of(1000));
+
+        assertTrue(versions.isCurrent("eleni", Integer.valueOf(1000)));
+        assertTrue(versions.isCurrent("eleni", 1000));
+        assertFalse(versions.isCurrent("eleni", 999));
+    }
+
+    @Test
+    void unknownUser_matchesNoToken() {
+        when(users.findTokenVersion("ghost")).thenReturn(Optional.empty());
+
+        assertFalse(versions.isCurrent("ghost", 0));
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.taskmanager.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DeadlineTimerTest {
+
+    private final List<Long> fired = new CopyOnWriteArrayList<>();
+    private final CountDownLatch latch = new CountDownLatch(1);
+    private final DeadlineTimer timer = new DeadlineTimer((ids, deadlines) -> {
+        fired.addAll(ids);
+        latch.countDown();
+    });
+
+    @AfterEach
+    void tearDown() {
+        timer.stop();
+    }
+
+    @Test
+    void firesDueEntries_skipsCancelled_andUsesLatestSchedule() throws Exception {
+        Instant soon = Instant.now().plusMillis(150);
+        timer.schedule(1L, soon);
+        timer.schedule(2L, soon);
+        timer.schedule(3L, soon);
+        timer.cancel(2L);
+        timer.schedule(3L, Instant.now().plusSeconds(3600)); // moved out: the old entry must not fire
+        timer.start(Thread::new);
+
+        assertTrue(latch.await(2, TimeUnit.SECONDS));
+        Thread.sleep(100);
+        assertEquals(List.of(1L), fired);
+        assertTrue(timer.isScheduled(3L));
+        assertEquals(1, timer.size());
+    }
+}
@@ -5,38 +5,53 @@ import com.example.taskmanager.dto.ProjectDto;
 import com.example.taskmanager.mapper.ProjectMapper;
 import com.example.taskmanager.model.Project;
 import com.example.taskmanager.repository.ProjectRepository;
+import com.example.taskmanager.repository.TaskRepository;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.dao.QueryTimeoutException;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class ProjectServiceTest {
 
     @Mock ProjectRepository projectRepository;
+    @Mock TaskRepository taskRepository;
     @Mock ProjectMapper projectMapper;
+    @Mock TaskEventPublisher events;
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    ProjectCache projectCache = new ProjectCache(100, Duration.ofMinutes(5), Duration.ofSeconds(30), registry);
 
-    @InjectMocks ProjectService projectService;
+    ProjectService projectService;
+
+    @BeforeEach
+    void setUp() {
+        projectService = new ProjectService(projectRepository, taskRepository, projectMapper, projectCache, events, registry, 2);
+    }
 
     @Test
     void findAll_returnsAllProjects() {
-        var p = Project.builder().id(1L).name("Alpha").build();
-        when(projectRepository.findAll()).thenReturn(List.of(p));
-        when(projectMapper.toDto(p)).thenReturn(new ProjectDto(1L, "Alpha", null, null));
+        when(projectRepository.findAllDtos()).thenReturn(List.of(new ProjectDto(1L, "Alpha", null, null)));
 
         var result = projectService.findAll();
 
         assertEquals(1, result.size());
         assertEquals("Alpha", result.get(0).name());
-        verify(projectRepository).findAll();
-        verify(projectMapper).toDto(p);
+        verify(projectRepository).findAllDtos();
+        verify(projectRepository, never()).findAll();
+        verifyNoInteractions(projectMapper);
     }
 
     @Test
@@ -58,19 +73,114 @@ class ProjectServiceTest {
     }
 
     @Test
-    void getOr404_found() {
+    void findAll_servedFromCacheUntilAProjectIsCreated() {
+        when(projectRepository.findAllDtos()).thenReturn(List.of(new ProjectDto(1L, "Alpha", null, null)));
+
+        projectService.findAll();
+        projectService.findAll();
+        verify(projectRepository, times(1)).findAllDtos();
+
+        projectCache.put(new ProjectDto(2L, "Beta", null, null));
+        projectService.findAll();
+        verify(projectRepository, times(2)).findAllDtos();
+    }
+
+    @Test
+    void tasksVersion_isOneLookup_and404ForUnknownProjects() {
+        when(projectRepository.findTasksVersion(1L)).thenReturn(Optional.of(42L));
+        assertEquals(42L, projectService.tasksVersion(1L));
+
+        when(projectRepository.findTasksVersion(2L)).thenReturn(Optional.empty());
+        var ex = assertThrows(ResponseStatusException.class, () -> projectService.tasksVersion(2L));
+        assertEquals(404, ex.getStatusCode().value());
+    }
+
+    @Test
+    void getOr404_found_returnsReferenceWithoutLoadingRow() {
         var p = Project.builder().id(5L).name("P").build();
-        when(projectRepository.findById(5L)).thenReturn(Optional.of(p));
+        when(projectRepository.existsByIdAndDeletingFalse(5L)).thenReturn(true);
+        when(projectRepository.getReferenceById(5L)).thenReturn(p);
 
         var result = projectService.getOr404(5L);
 
         assertEquals(5L, result.getId());
-        verify(projectRepository).findById(5L);
+        verify(projectRepository).existsByIdAndDeletingFalse(5L);
+        verify(projectRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    void requireExists_cachesExistence_untilDeleted() {
+        when(projectRepository.existsByIdAndDeletingFalse(5L)).thenReturn(true);
+        when(projectRepository.markDeleting(5L)).thenReturn(1);
+        when(projectRepository.deleteInBulk(5L)).thenReturn(1);
+
+        projectService.requireExists(5L);
+        projectService.requireExists(5L);
+        verify(projectRepository, times(1)).existsByIdAndDeletingFalse(5L);
+
+        projectService.delete(5L);
+        when(projectRepository.existsByIdAndDeletingFalse(5L)).thenReturn(false);
+        var ex = assertThrows(ResponseStatusException.class, () -> projectService.requireExists(5L));
+        assertEquals(404, ex.getStatusCode().value());
+    }
+
+    @Test
+    void delete_flagsProject_removesTasksInChunks_thenProject_andPublishesOneEvent() {
+        when(projectRepository.markDeleting(7L)).thenReturn(1);
+        when(taskRepository.deleteChunkByProjectId(7L, 2)).thenReturn(2, 2, 1);
+        when(projectRepository.deleteInBulk(7L)).thenReturn(1);
+
+        projectService.delete(7L);
+
+        var order = inOrder(taskRepository, projectRepository);
+        order.verify(projectRepository).markDeleting(7L);
+        order.verify(taskRepository, times(3)).deleteChunkByProjectId(7L, 2);
+        order.verify(projectRepository).deleteInBulk(7L);
+        verify(projectRepository, never()).findById(anyLong());
+        verify(events).publish(Map.of("action", "projectDeleted", "projectId", 7L), "/topic/projects/7/tasks");
+        assertEquals(5.0, registry.get("projects.delete.tasks").counter().count());
+        assertEquals(1.0, registry.get("projects.deletions").tag("outcome", "completed").counter().count());
+    }
+
+    @Test
+    void delete_failingMidway_leavesProjectHiddenAndCounted_andRetryResumes() {
+        when(projectRepository.markDeleting(7L)).thenReturn(1);
+        when(taskRepository.deleteChunkByProjectId(7L, 2))
+                .thenReturn(2)
+                .thenThrow(new QueryTimeoutException("statement timeout"))
+                .thenReturn(1);
+        when(projectRepository.deleteInBulk(7L)).thenReturn(1);
+
+        assertThrows(QueryTimeoutException.class, () -> projectService.delete(7L));
+        verify(projectRepository, never()).deleteInBulk(7L);
+        verifyNoInteractions(events);
+        assertEquals(1.0, registry.get("projects.deletions").tag("outcome", "failed").counter().count());
+        assertEquals(2.0, registry.get("projects.delete.tasks").counter().count());
+        assertEquals(0.0, registry.get("projects.deletions.active").gauge().value());
+
+        // Flagged, so the API already treats it as gone
+        var ex = assertThrows(ResponseStatusException.class, () -> projectService.requireExists(7L));
+        assertEquals(404, ex.getStatusCode().value());
+
+        projectService.delete(7L);
+        verify(projectRepository, times(2)).markDeleting(7L);
+        verify(events).publish(Map.of("action", "projectDeleted", "projectId", 7L), "/topic/projects/7/tasks");
+        assertEquals(3.0, registry.get("projects.delete.tasks").counter().count());
+    }
+
+    @Test
+    void delete_unknownProject_throws404_withoutEvent() {
+        when(projectRepository.markDeleting(8L)).thenReturn(0);
+
+        var ex = assertThrows(ResponseStatusException.class, () -> projectService.delete(8L));
+
+        assertEquals(404, ex.getStatusCode().value());
+        verifyNoInteractions(events);
     }
 
     @Test
     void getOr404_notFound_throws404() {
-        when(projectRepository.findById(99L)).thenReturn(Optional.empty());
+        when(projectRepository.existsByIdAndDeletingFalse(99L)).thenReturn(false);
 
         var ex = assertThrows(ResponseStatusException.class, () -> projectService.getOr404(99L));
         assertEquals(404, ex.getStatusCode().value());
@@ -0,0 +1,86 @@
+package com.example.taskmanager.service;
+
+import com.example.taskmanager.dto.TaskDto;
+import com.example.taskmanager.enums.TaskStatus;
+import com.example.taskmanager.repository.TaskRepository;
+import com.example.taskmanager.repository.TaskTombstoneRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaskChangeServiceTest {
+
+    @Mock TaskRepository taskRepository;
+    @Mock TaskTombstoneRepository tombstoneRepository;
+    @Mock ProjectService projectService;
+
+    TaskChangeService changes;
+
+    @BeforeEach
+    void setUp() {
+        changes = new TaskChangeService(taskRepository, tombstoneRepository, projectService,
+                Duration.ofSeconds(5), Duration.ofDays(7));
+    }
+
+    @Test
+    void changesSince_readsFromOverlapBeforeWatermark_andReturnsDatabaseTime() {
+        var dbNow = Instant.parse("2025-03-01T10:05:00Z");
+        var since = dbNow.minusSeconds(60);
+        when(taskRepository.findDatabaseTime()).thenReturn(dbNow);
+        var dto = new TaskDto(3L, "t", null, TaskStatus.TODO, null, 1L);
+        when(taskRepository.findChangedSince(1L, since.minusSeconds(5))).thenReturn(List.of(dto));
+        when(tombstoneRepository.findDeletedIdsSince(1L, since.minusSeconds(5))).thenReturn(List.of(9L));
+
+        var result = changes.changesSince(1L, since);
+
+        assertEquals(List.of(dto), result.changed());
+        assertEquals(List.of(9L), result.deleted());
+        assertEquals(dbNow, result.watermark());
+        verify(projectService).requireExists(1L);
+    }
+
+    @Test
+    void changesSince_watermarkPastRetention_throws410() {
+        var dbNow = Instant.parse("2025-03-01T10:05:00Z");
+        when(taskRepository.findDatabaseTime()).thenReturn(dbNow);
+
+        var ex = assertThrows(ResponseStatusException.class,
+                () -> changes.changesSince(1L, dbNow.minus(Duration.ofDays(8))));
+
+        assertEquals(410, ex.getStatusCode().value());
+        verify(taskRepository, never()).findChangedSince(any(), any());
+        verifyNoInteractions(tombstoneRepository);
+    }
+
+    @Test
+    void changesSince_watermarkAheadOfDatabaseClock_throws400() {
+        var dbNow = Instant.parse("2025-03-01T10:05:00Z");
+        when(taskRepository.findDatabaseTime()).thenReturn(dbNow);
+
+        var ex = assertThrows(ResponseStatusException.class,
+                () -> changes.changesSince(1L, dbNow.plusSeconds(60)));
+
+        assertEquals(400, ex.getStatusCode().value());
+        verify(taskRepository, never()).findChangedSince(any(), any());
+        verifyNoInteractions(tombstoneRepository);
+    }
+
+    @Test
+    void purgeTombstones_dropsEntriesOlderThanRetention() {
+        changes.purgeTombstones();
+
+        verify(tombstoneRepository).purgeBefore(argThat(cutoff ->
+                cutoff.isBefore(Instant.now().minus(Duration.ofDays(7)).plusSeconds(1))));
+    }
+}
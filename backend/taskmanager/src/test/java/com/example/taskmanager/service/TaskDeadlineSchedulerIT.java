@@ -0,0 +1,221 @@
+package com.example.taskmanager.service;
+
+import com.example.taskmanager.repository.ExpiredTask;
+import com.example.taskmanager.repository.ProjectRepository;
+import com.example.taskmanager.repository.SchedulerLeaseRepository;
+import com.example.taskmanager.repository.TaskRepository;
+import com.example.taskmanager.support.PostgresTestDatabase;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Several scheduler "replicas" sharing one Postgres: every overdue task must be flagged and
+ * broadcast exactly once no matter how the nodes interleave.
+ */
+@SpringBootTest(properties = "app.tasks.expiry.reconcile-interval=1h")
+class TaskDeadlineSchedulerIT {
+
+    static final int NODES = 4;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        PostgresTestDatabase.register(registry);
+    }
+
+    @Autowired TaskRepository tasks;
+    @Autowired ProjectRepository projects;
+    @Autowired SchedulerLeaseRepository leases;
+    @Autowired JdbcTemplate jdbc;
+
+    final Queue<String> notified = new ConcurrentLinkedQueue<>();
+    final List<TaskDeadlineScheduler> nodes = new ArrayList<>();
+    final ExecutorService pool = Executors.newFixedThreadPool(NODES);
+    long projectId;
+
+    @BeforeEach
+    void setUp() {
+        jdbc.update("delete from projects");
+        // The application's own scheduler grabbed the lease on startup; the simulated nodes compete from scratch
+        leases.deleteAll();
+        projectId = jdbc.queryForObject("insert into projects (name) values ('cluster') returning id", Long.class);
+
+        // Each node records the titles it publishes instead of broadcasting them
+        TaskEventPublisher events = new TaskEventPublisher(null, null, new SimpleMeterRegistry(), Duration.ZERO, 1) {
+            @Override
+            public void publish(Object payload, String... destinations) {
+                notified.add((String) ((Map<?, ?>) payload).get("task"));
+            }
+        };
+        for (int i = 0; i < NODES; i++) {
+            LeaderLease lease = new LeaderLease(leases, "node-" + i, Duration.ofMinutes(1));
+            nodes.add(new TaskDeadlineScheduler(tasks, lease, events, new SimpleMeterRegistry(), 50, Duration.ofMinutes(10)));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        nodes.forEach(TaskDeadlineScheduler::stop);
+        pool.shutdownNow();
+    }
+
+    @Test
+    void concurrentSweeps_notifyEachOverdueTaskOnce() throws Exception {
+        insertTasks(1000, Instant.now().minusSeconds(3600));
+
+        runTogether(node -> node::notifyExpiredTasks);
+
+        assertEquals(0, pendingCount());
+        assertNotifiedOnce(1000);
+        // Only one replica did the sweep
+        String owner = leases.findById(TaskDeadlineScheduler.LEASE).orElseThrow().getOwner();
+        assertTrue(owner.startsWith("node-"));
+    }
+
+    @Test
+    void concurrentChunkClaims_partitionRowsWithoutOverlap() throws Exception {
+        insertTasks(1000, Instant.now().minusSeconds(3600));
+
+        List<Future<List<Long>>> claims = new ArrayList<>();
+        CountDownLatch go = new CountDownLatch(1);
+        for (int i = 0; i < NODES; i++) {
+            claims.add(pool.submit(() -> {
+                go.await();
+                List<Long> mine = new ArrayList<>();
+                List<ExpiredTask> chunk;
+                while (!(chunk = tasks.markExpired(50)).isEmpty()) {
+                    chunk.forEach(t -> mine.add(t.getId()));
+                }
+                return mine;
+            }));
+        }
+        go.countDown();
+
+        Set<Long> seen = new HashSet<>();
+        int total = 0;
+        for (Future<List<Long>> f : claims) {
+            List<Long> mine = f.get();
+            total += mine.size();
+            seen.addAll(mine);
+        }
+        assertEquals(1000, total);
+        assertEquals(1000, seen.size());
+        assertEquals(0, pendingCount());
+    }
+
+    @Test
+    void expiry_restampsUpdatedAt_soDeltaSyncAndListEtagPickItUp() {
+        insertTasks(100, Instant.now().minusSeconds(3600));
+        Instant watermark = tasks.findDatabaseTime();
+        long listVersion = projects.findTasksVersion(projectId).orElseThrow();
+        assertTrue(tasks.findChangedSince(projectId, watermark).isEmpty());
+
+        nodes.get(0).notifyExpiredTasks();
+
+        assertEquals(100, tasks.findChangedSince(projectId, watermark).size());
+        assertNotEquals(listVersion, projects.findTasksVersion(projectId).orElseThrow());
+    }
+
+    @Test
+    void timersOnEveryNode_fireEachDeadlineOnce() throws Exception {
+        List<Long> ids = insertTasks(200, Instant.now().plusMillis(500));
+        for (TaskDeadlineScheduler node : nodes) {
+            node.start();
+            ids.forEach(id -> node.track(id, Instant.now().plusMillis(500)));
+        }
+
+        long until = System.currentTimeMillis() + 10_000;
+        while (pendingCount() > 0 && System.currentTimeMillis() < until) {
+            Thread.sleep(50);
+        }
+        Thread.sleep(200);
+
+        assertEquals(0, pendingCount());
+        assertNotifiedOnce(200);
+    }
+
+    @Test
+    void lease_isExclusiveUntilReleased() {
+        LeaderLease a = new LeaderLease(leases, "node-a", Duration.ofMinutes(1));
+        LeaderLease b = new LeaderLease(leases, "node-b", Duration.ofMinutes(1));
+
+        assertTrue(a.tryAcquire("job"));
+        assertFalse(b.tryAcquire("job"));
+        assertTrue(a.tryAcquire("job"), "holder renews");
+
+        a.release("job");
+        assertTrue(b.tryAcquire("job"));
+    }
+
+    @Test
+    void lease_isTakenOverOnceExpired() throws Exception {
+        LeaderLease a = new LeaderLease(leases, "node-a", Duration.ofSeconds(1));
+        LeaderLease b = new LeaderLease(leases, "node-b", Duration.ofMinutes(1));
+
+        assertTrue(a.tryAcquire("job"));
+        Thread.sleep(1500);
+
+        assertTrue(b.tryAcquire("job"));
+        assertFalse(a.tryAcquire("job"));
+    }
+
+    private List<Long> insertTasks(int count, Instant deadline) {
+        return jdbc.queryForList("""
+                insert into tasks (title, status, project_id, deadline)
+                select 't-' || g, 'TODO', ?, ? from generate_series(1, ?) g
+                returning id
+                """, Long.class, projectId, Timestamp.from(deadline), count);
+    }
+
+    private int pendingCount() {
+        return jdbc.queryForObject("select count(*) from tasks where expired_notified = false", Integer.class);
+    }
+
+    private void assertNotifiedOnce(int expected) {
+        List<String> titles = new ArrayList<>(notified);
+        assertEquals(expected, titles.size(), "notifications sent");
+        assertEquals(expected, new HashSet<>(titles).size(), "duplicate notifications");
+    }
+
+    private void runTogether(Function<TaskDeadlineScheduler, Runnable> job) throws Exception {
+        CountDownLatch go = new CountDownLatch(1);
+        List<Future<Object>> done = new ArrayList<>();
+        for (TaskDeadlineScheduler node : nodes) {
+            Runnable r = job.apply(node);
+            done.add(pool.submit((Callable<Object>) () -> {
+                go.await();
+                r.run();
+                return null;
+            }));
+        }
+        go.countDown();
+        for (Future<Object> f : done) {
+            f.get();
+        }
+    }
+}
@@ -1,21 +1,23 @@
 package com.example.taskmanager.service;
 
-import com.example.taskmanager.model.Project;
-import com.example.taskmanager.model.Task;
+import com.example.taskmanager.repository.ExpiredTask;
+import com.example.taskmanager.repository.PendingDeadline;
 import com.example.taskmanager.repository.TaskRepository;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.ArgumentCaptor;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.util.List;
+import java.util.Set;
 
-import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
@@ -23,26 +25,136 @@ import static org.mockito.Mockito.*;
 class TaskDeadlineSchedulerTest {
 
     @Mock TaskRepository taskRepository;
-    @Mock SimpMessagingTemplate broker;
+    @Mock TaskEventPublisher events;
+    @Mock LeaderLease lease;
 
-    @InjectMocks TaskDeadlineScheduler scheduler;
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    TaskDeadlineScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        scheduler = new TaskDeadlineScheduler(taskRepository, lease, events, registry, 2, Duration.ofMinutes(10));
+        lenient().when(lease.tryAcquire(TaskDeadlineScheduler.LEASE)).thenReturn(true);
+    }
 
     @Test
     void notifyExpiredTasks_marksAndBroadcastsOnBothTopics() {
-        var project = Project.builder().id(5L).name("P").build();
-        var task = Task.builder().id(10L).title("Overdue").deadline(Instant.now().minusSeconds(60)).project(project).expiredNotified(false).build();
-        when(taskRepository.findByDeadlineBeforeAndExpiredNotifiedFalse(any(Instant.class)))
-                .thenReturn(List.of(task));
+        when(taskRepository.markExpired(eq(2)))
+                .thenReturn(List.of(expired(10L, 5L)));
 
         scheduler.notifyExpiredTasks();
 
-        // Task should be saved with expiredNotified=true
-        ArgumentCaptor<Task> savedCap = ArgumentCaptor.forClass(Task.class);
-        verify(taskRepository).save(savedCap.capture());
-        assertTrue(savedCap.getValue().isExpiredNotified());
+        // Single set-based update, no per-row saves
+        verify(taskRepository).markExpired(eq(2));
+        verify(taskRepository, never()).save(any());
 
         // Two broadcasts: project-specific and global
-        verify(broker).convertAndSend(eq("/topic/projects/5/tasks"), any(Object.class));
-        verify(broker).convertAndSend(eq("/topic/tasks"), any(Object.class));
+        verify(events).publish(any(), eq("/topic/projects/5/tasks"), eq("/topic/tasks"));
+    }
+
+    @Test
+    void notifyExpiredTasks_keepsGoingWhileChunksAreFull() {
+        when(taskRepository.markExpired(anyInt()))
+                .thenReturn(List.of(expired(1L, 5L), expired(2L, 5L)))
+                .thenReturn(List.of(expired(3L, 6L)));
+
+        scheduler.notifyExpiredTasks();
+
+        verify(taskRepository, times(2)).markExpired(eq(2));
+        verify(events, times(2)).publish(any(), eq("/topic/projects/5/tasks"), eq("/topic/tasks"));
+        verify(events).publish(any(), eq("/topic/projects/6/tasks"), eq("/topic/tasks"));
+    }
+
+    @Test
+    void notifyExpiredTasks_skipsSweepWithoutLease() {
+        when(lease.tryAcquire(TaskDeadlineScheduler.LEASE)).thenReturn(false);
+
+        scheduler.notifyExpiredTasks();
+
+        verifyNoInteractions(taskRepository, events);
+    }
+
+    @Test
+    void stop_releasesLease() {
+        scheduler.stop();
+
+        verify(lease).release(TaskDeadlineScheduler.LEASE);
+    }
+
+    @Test
+    void notifyExpiredTasks_loadsUpcomingDeadlinesIntoTimer() {
+        when(taskRepository.markExpired(anyInt())).thenReturn(List.of());
+        Instant soon = Instant.now().plusSeconds(120);
+        when(taskRepository.findPendingDeadlines(any(Instant.class))).thenReturn(List.of(pending(7L, soon), pending(8L, soon)));
+
+        scheduler.notifyExpiredTasks();
+
+        assertEquals(2.0, registry.get("tasks.deadline.timer.depth").gauge().value());
+    }
+
+    @Test
+    void track_keepsOnlyDeadlinesInsideHorizon_andCancelRemoves() {
+        scheduler.track(1L, Instant.now().plusSeconds(60));
+        scheduler.track(2L, Instant.now().plus(Duration.ofHours(2)));
+        scheduler.track(3L, null);
+        assertEquals(1.0, registry.get("tasks.deadline.timer.depth").gauge().value());
+
+        scheduler.track(1L, null);
+        assertEquals(0.0, registry.get("tasks.deadline.timer.depth").gauge().value());
+    }
+
+    @Test
+    void timer_firesDueTaskWithinASecond_andBroadcasts() {
+        when(taskRepository.markExpired(anyInt())).thenReturn(List.of());
+        when(taskRepository.findPendingDeadlines(any(Instant.class))).thenReturn(List.of());
+        when(taskRepository.markExpired(eq(List.of(42L)))).thenReturn(List.of(expired(42L, 9L)));
+        scheduler.start();
+        try {
+            scheduler.track(42L, Instant.now().plusMillis(100));
+
+            verify(events, timeout(1000)).publish(any(), eq("/topic/projects/9/tasks"), eq("/topic/tasks"));
+            assertEquals(1, registry.get("tasks.deadline.fire.lag").timer().count());
+        } finally {
+            scheduler.stop();
+        }
+    }
+
+    @Test
+    void timer_firingBeforeTheDatabaseClock_reArmsInsteadOfWaitingForTheSweep() {
+        when(taskRepository.markExpired(anyInt())).thenReturn(List.of());
+        when(taskRepository.findPendingDeadlines(any(Instant.class))).thenReturn(List.of());
+        Instant deadline = Instant.now().plusMillis(100);
+        // First attempt: the database clock is 300ms behind, so the row is not due yet
+        when(taskRepository.markExpired(eq(List.of(42L))))
+                .thenReturn(List.of())
+                .thenReturn(List.of(expired(42L, 9L)));
+        when(taskRepository.findPendingDeadlines(eq(Set.of(42L)))).thenReturn(List.of(pending(42L, deadline)));
+        when(taskRepository.findDatabaseTime()).thenAnswer(inv -> Instant.now().minusMillis(300));
+        scheduler.start();
+        try {
+            scheduler.track(42L, deadline);
+
+            verify(events, timeout(1500)).publish(any(), eq("/topic/projects/9/tasks"), eq("/topic/tasks"));
+            verify(taskRepository, times(2)).markExpired(eq(List.of(42L)));
+        } finally {
+            scheduler.stop();
+        }
+    }
+
+    private static PendingDeadline pending(Long id, Instant deadline) {
+        return new PendingDeadline() {
+            public Long getId() { return id; }
+            public Instant getDeadline() { return deadline; }
+        };
+    }
+
+    private static ExpiredTask expired(Long id, Long projectId) {
+        Instant deadline = Instant.now().minusSeconds(60);
+        return new ExpiredTask() {
+            public Long getId() { return id; }
+            public String getTitle() { return "Overdue " + id; }
+            public Long getProjectId() { return projectId; }
+            public Instant getDeadline() { return deadline; }
+        };
     }
 }
@@ -0,0 +1,126 @@
+package com.example.taskmanager.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaskEventPublisherTest {
+
+    @Mock SimpMessagingTemplate broker;
+
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    TaskEventPublisher publisher;
+
+    @BeforeEach
+    void setUp() {
+        publisher = new TaskEventPublisher(broker, new ObjectMapper(), registry, Duration.ofMillis(50), 100);
+        publisher.start();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        publisher.stop();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void eventsWithinWindow_areCoalescedPerDestination_intoOneArrayFrame() {
+        publisher.publish(Map.of("id", 1), "/topic/projects/1/tasks", TaskEventPublisher.ALL_TASKS);
+        publisher.publish(Map.of("id", 2), "/topic/projects/1/tasks");
+        publisher.publish(Map.of("id", 3), "/topic/projects/1/tasks");
+
+        verify(broker, timeout(1000)).send(eq("/topic/projects/1/tasks"), argThatBody("[{\"id\":1},{\"id\":2},{\"id\":3}]"));
+        // A single event is sent as-is, not wrapped in an array
+        verify(broker, timeout(1000)).send(eq(TaskEventPublisher.ALL_TASKS), argThatBody("{\"id\":1}"));
+        verifyNoMoreInteractions(broker);
+        assertEquals(4.0, registry.get("tasks.events.batch.size").summary().totalAmount());
+    }
+
+    @Test
+    void insideTransaction_nothingIsQueuedBeforeCommit() throws InterruptedException {
+        TransactionSynchronizationManager.initSynchronization();
+        publisher.publish(Map.of("id", 7), TaskEventPublisher.ALL_TASKS);
+
+        Thread.sleep(150);
+        verifyNoInteractions(broker);
+
+        List<TransactionSynchronization> syncs = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        syncs.forEach(TransactionSynchronization::afterCommit);
+
+        verify(broker, timeout(1000)).send(eq(TaskEventPublisher.ALL_TASKS), argThatBody("{\"id\":7}"));
+        assertEquals(1, registry.get("tasks.events.publish.latency").timer().count());
+    }
+
+    @Test
+    void stop_flushesPendingEvents() throws InterruptedException {
+        publisher.publish(Map.of("id", 9), TaskEventPublisher.ALL_TASKS);
+        publisher.stop();
+
+        ArgumentCaptor<Message<?>> sent = ArgumentCaptor.forClass(Message.class);
+        verify(broker).send(eq(TaskEventPublisher.ALL_TASKS), sent.capture());
+        assertEquals("{\"id\":9}", body(sent.getValue()));
+    }
+
+    @Test
+    void stop_midWindow_flushesTheBatchAlreadyTaken() throws InterruptedException {
+        var slowRegistry = new SimpleMeterRegistry();
+        var slow = new TaskEventPublisher(broker, new ObjectMapper(), slowRegistry, Duration.ofSeconds(30), 100);
+        slow.start();
+        slow.publish(Map.of("id", 5), TaskEventPublisher.ALL_TASKS);
+        // The worker has taken the event off the queue and is waiting out the window
+        long until = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+        while (slowRegistry.get("tasks.events.queue.depth").gauge().value() > 0 && System.nanoTime() < until) {
+            Thread.sleep(5);
+        }
+        slow.stop();
+
+        verify(broker).send(eq(TaskEventPublisher.ALL_TASKS), argThatBody("{\"id\":5}"));
+    }
+
+    @Test
+    void fullQueue_dropsAndCountsInsteadOfGrowing() throws InterruptedException {
+        var tinyRegistry = new SimpleMeterRegistry();
+        var tiny = new TaskEventPublisher(broker, new ObjectMapper(), tinyRegistry, Duration.ofMillis(50), 1);
+        // No worker yet, as if the broker had stalled: the second event finds the queue full
+        tiny.publish(Map.of("id", 1), TaskEventPublisher.ALL_TASKS);
+        tiny.publish(Map.of("id", 2), TaskEventPublisher.ALL_TASKS);
+        assertEquals(1.0, tinyRegistry.get("tasks.events.dropped").counter().count());
+
+        tiny.start();
+        verify(broker, timeout(1000)).send(eq(TaskEventPublisher.ALL_TASKS), argThatBody("{\"id\":1}"));
+        tiny.stop();
+        verifyNoMoreInteractions(broker);
+    }
+
+    private static Message<?> argThatBody(String json) {
+        return argThat(m -> json.equals(body(m)));
+    }
+
+    private static String body(Message<?> m) {
+        return new String((byte[]) m.getPayload(), StandardCharsets.UTF_8);
+    }
+}
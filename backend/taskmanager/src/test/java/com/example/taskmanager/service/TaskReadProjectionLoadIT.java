@@ -0,0 +1,130 @@
+package com.example.taskmanager.service;
+
+import com.example.taskmanager.dto.TaskDto;
+import com.example.taskmanager.mapper.TaskMapper;
+import com.example.taskmanager.model.Task;
+import com.example.taskmanager.repository.TaskRepository;
+import com.example.taskmanager.support.PostgresTestDatabase;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Task reads through managed entities plus {@link TaskMapper} versus the DTO constructor expressions in
+ * {@link TaskRepository}, on one project with {@code load.tasks} rows (default 100k): a 1000-row list page
+ * and the whole project. Prints p50/p99 latency and bytes allocated per read for each path; fails only when
+ * the DTO path allocates more, since timings depend on the machine. Iterations: -Dload.iterations.
+ */
+@SpringBootTest(properties = "logging.level.root=WARN")
+class TaskReadProjectionLoadIT {
+
+    static final int TASKS = Integer.getInteger("load.tasks", 100_000);
+    static final int ITERATIONS = Integer.getInteger("load.iterations", 30);
+    static final int PAGE = 1000;
+
+    static final String WHERE = "from Task t where t.project.id = :projectId and t.id > :afterId order by t.id";
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        PostgresTestDatabase.register(registry);
+    }
+
+    @Autowired EntityManager em;
+    @Autowired TaskMapper mapper;
+    @Autowired JdbcTemplate jdbc;
+    @Autowired PlatformTransactionManager txManager;
+
+    long projectId;
+
+    @BeforeEach
+    void seed() {
+        projectId = jdbc.queryForObject(
+                "insert into projects (id, name) values (nextval('projects_seq'), 'projection-load') returning id",
+                Long.class);
+        jdbc.update("""
+                insert into tasks (id, title, description, status, deadline, project_id)
+                select nextval('tasks_seq'), 'task ' || g, 'description of task ' || g, 'TODO',
+                       now() + g * interval '1 minute', ?
+                from generate_series(1, ?) g
+                """, projectId, TASKS);
+        jdbc.execute("analyze tasks");
+    }
+
+    @Test
+    void dtoProjectionAllocatesLessThanEntities() {
+        for (int rows : new int[] {PAGE, TASKS}) {
+            int iterations = rows == PAGE ? ITERATIONS * 10 : ITERATIONS;
+            Result readWrite = measure("entities, read-write tx", rows, iterations, false, this::viaEntities);
+            Result readOnly = measure("entities, read-only tx", rows, iterations, true, this::viaEntities);
+            Result dto = measure("dto projection, read-only tx", rows, iterations, true, this::viaProjection);
+
+            System.out.println(readWrite);
+            System.out.println(readOnly);
+            System.out.println(dto);
+            assertTrue(dto.bytesPerRead() < readOnly.bytesPerRead(),
+                    "DTO path allocated more than entities for " + rows + " rows");
+        }
+    }
+
+    private List<TaskDto> viaEntities(int rows) {
+        return em.createQuery("select t " + WHERE, Task.class)
+                .setParameter("projectId", projectId)
+                .setParameter("afterId", 0L)
+                .setMaxResults(rows)
+                .getResultList().stream().map(mapper::toDto).toList();
+    }
+
+    private List<TaskDto> viaProjection(int rows) {
+        return em.createQuery(TaskRepository.AS_DTO + WHERE, TaskDto.class)
+                .setParameter("projectId", projectId)
+                .setParameter("afterId", 0L)
+                .setMaxResults(rows)
+                .getResultList();
+    }
+
+    private Result measure(String name, int rows, int iterations, boolean readOnly, IntFunction<List<TaskDto>> read) {
+        TransactionTemplate tx = new TransactionTemplate(txManager);
+        tx.setReadOnly(readOnly);
+        var threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().threadId();
+        for (int i = 0; i < Math.max(3, iterations / 5); i++) {
+            tx.execute(status -> read.apply(rows));
+        }
+        long[] nanos = new long[iterations];
+        long allocated = 0;
+        for (int i = 0; i < iterations; i++) {
+            long bytes = threads.getThreadAllocatedBytes(thread);
+            long start = System.nanoTime();
+            List<TaskDto> result = tx.execute(status -> read.apply(rows));
+            nanos[i] = System.nanoTime() - start;
+            allocated += threads.getThreadAllocatedBytes(thread) - bytes;
+            assertEquals(rows, result.size());
+        }
+        Arrays.sort(nanos);
+        return new Result(name, rows, nanos[iterations / 2], nanos[(int) Math.ceil(iterations * 0.99) - 1],
+                allocated / iterations);
+    }
+
+    record Result(String name, int rows, long p50Nanos, long p99Nanos, long bytesPerRead) {
+        @Override
+        public String toString() {
+            return String.format("%-30s %7d rows  p50 %8.2f ms  p99 %8.2f ms  %9.2f MB/read",
+                    name, rows, p50Nanos / 1e6, p99Nanos / 1e6, bytesPerRead / 1048576.0);
+        }
+    }
+}
@@ -1,23 +1,34 @@
 package com.example.taskmanager.service;
 
+import com.example.taskmanager.dto.TaskBatchRequest;
+import com.example.taskmanager.dto.TaskBatchUpdate;
 import com.example.taskmanager.dto.TaskCreateDto;
 import com.example.taskmanager.dto.TaskDto;
+import com.example.taskmanager.dto.TaskFilter;
 import com.example.taskmanager.dto.TaskUpdateDto;
 import com.example.taskmanager.enums.TaskStatus;
 import com.example.taskmanager.mapper.TaskMapper;
 import com.example.taskmanager.model.Project;
 import com.example.taskmanager.model.Task;
 import com.example.taskmanager.repository.TaskRepository;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -28,26 +39,65 @@ class TaskServiceTest {
 
     @Mock TaskRepository taskRepository;
     @Mock ProjectService projectService;
-    @Mock SimpMessagingTemplate broker;
+    @Mock TaskEventPublisher events;
     @Mock TaskMapper taskMapper;
+    @Mock TaskDeadlineScheduler deadlines;
 
     @InjectMocks TaskService taskService;
 
     @Test
-    void findByProject_returnsTasks_andChecksProjectExists() {
-        when(projectService.getOr404(1L)).thenReturn(Project.builder().id(1L).build());
-        var entity = Task.builder().id(7L).title("t").status(TaskStatus.TODO).build();
-        when(taskRepository.findByProjectId(1L)).thenReturn(List.of(entity));
+    void findByProject_returnsPage_andChecksProjectExists() {
         var dto = new TaskDto(7L, "t", null, TaskStatus.TODO, null, 1L);
-        when(taskMapper.toDto(entity)).thenReturn(dto);
+        when(taskRepository.findPage(1L, 0L, TaskFilter.none(), 50))
+                .thenReturn(new SliceImpl<>(List.of(dto), PageRequest.of(0, 50), false));
+
+        var result = taskService.findByProject(1L, TaskFilter.none(), null, 50);
+
+        assertEquals(1, result.items().size());
+        assertEquals(7L, result.items().get(0).id());
+        assertNull(result.nextCursor());
+        verify(projectService).requireExists(1L);
+        verify(projectService, never()).getOr404(anyLong());
+        verifyNoInteractions(taskMapper);
+    }
+
+    @Test
+    void findByProject_passesCursorAndFilters_andReturnsNextCursorWhenMore() {
+        var from = Instant.parse("2025-01-01T00:00:00Z");
+        var a = new TaskDto(21L, "a", null, TaskStatus.DONE, null, 1L);
+        var b = new TaskDto(22L, "b", null, TaskStatus.DONE, null, 1L);
+        when(taskRepository.findPage(1L, 20L, new TaskFilter(TaskStatus.DONE, from, null, false), 2))
+                .thenReturn(new SliceImpl<>(List.of(a, b), PageRequest.of(0, 2), true));
+
+        var result = taskService.findByProject(1L, new TaskFilter(TaskStatus.DONE, from, null, false), 20L, 2);
 
-        var result = taskService.findByProject(1L);
+        assertEquals(2, result.items().size());
+        assertEquals(22L, result.nextCursor());
+    }
+
+    @Test
+    void exportByProject_streamsAllRows() {
+        int rows = TaskRepository.EXPORT_FETCH_SIZE * 2 + 1;
+        when(taskRepository.streamByProjectId(3L))
+                .thenReturn(IntStream.range(0, rows).mapToObj(i -> new TaskDto((long) i, null, null, null, null, 3L)));
+        var out = new java.util.ArrayList<TaskDto>();
+
+        taskService.exportByProject(3L, out::add);
 
-        assertEquals(1, result.size());
-        assertEquals(7L, result.get(0).id());
-        verify(projectService).getOr404(1L);
-        verify(taskRepository).findByProjectId(1L);
-        verify(taskMapper).toDto(entity);
+        assertEquals(rows, out.size());
+        verifyNoInteractions(taskMapper);
+    }
+
+    @Test
+    void get_readsDto_or404() {
+        var dto = new TaskDto(5L, "t", null, TaskStatus.TODO, null, 1L);
+        when(taskRepository.findDtoById(5L)).thenReturn(Optional.of(dto));
+        when(taskRepository.findDtoById(6L)).thenReturn(Optional.empty());
+
+        assertEquals(dto, taskService.get(5L));
+        var ex = assertThrows(ResponseStatusException.class, () -> taskService.get(6L));
+        assertEquals(404, ex.getStatusCode().value());
+        verify(taskRepository, never()).findById(anyLong());
     }
 
     @Test
@@ -65,7 +115,39 @@ class TaskServiceTest {
         assertEquals(11L, result.id());
         verify(taskRepository).save(any(Task.class));
         verify(taskMapper).toDto(saved);
-        verify(broker).convertAndSend(eq("/topic/projects/1/tasks"), eq(dto));
+        verify(events).publish(dto, "/topic/projects/1/tasks", "/topic/tasks");
+        verify(deadlines).track(11L, null);
+    }
+
+    @Test
+    void create_projectDeletedAfterCheck_fkViolationBecomes404_andForgetsProject() {
+        when(projectService.getOr404(1L)).thenReturn(Project.builder().id(1L).build());
+        when(taskRepository.save(any(Task.class))).thenAnswer(inv -> inv.getArgument(0));
+        doThrow(new DataIntegrityViolationException("fk", new ConstraintViolationException(
+                "violates foreign key", null, "tasks_project_fk"))).when(taskRepository).flush();
+
+        var ex = assertThrows(ResponseStatusException.class,
+                () -> taskService.create(1L, new TaskCreateDto("New", null, TaskStatus.TODO, null)));
+
+        assertEquals(404, ex.getStatusCode().value());
+        verify(projectService).forget(1L);
+        verifyNoInteractions(events, deadlines);
+    }
+
+    @Test
+    void create_otherConstraintViolation_propagates_andKeepsProject() {
+        when(projectService.getOr404(1L)).thenReturn(Project.builder().id(1L).build());
+        when(taskRepository.save(any(Task.class))).thenAnswer(inv -> inv.getArgument(0));
+        var violation = new DataIntegrityViolationException("not null", new ConstraintViolationException(
+                "violates not-null constraint", null, null));
+        doThrow(violation).when(taskRepository).flush();
+
+        var ex = assertThrows(DataIntegrityViolationException.class,
+                () -> taskService.create(1L, new TaskCreateDto("New", null, TaskStatus.TODO, null)));
+
+        assertSame(violation, ex);
+        verify(projectService, never()).forget(anyLong());
+        verifyNoInteractions(events, deadlines);
     }
 
     @Test
@@ -86,7 +168,84 @@ class TaskServiceTest {
         assertEquals("Upd", result.title());
         verify(taskRepository).save(existing);
         verify(taskMapper).toDto(saved);
-        verify(broker).convertAndSend(eq("/topic/projects/2/tasks"), eq(dto));
+        verify(events).publish(dto, "/topic/projects/2/tasks");
+    }
+
+    @Test
+    void create_insideTransaction_tracksDeadlineOnlyAfterCommit() {
+        var p = Project.builder().id(1L).build();
+        when(projectService.getOr404(1L)).thenReturn(p);
+        var deadline = Instant.now().plusSeconds(60);
+        var saved = Task.builder().id(12L).title("New").status(TaskStatus.TODO).deadline(deadline).project(p).build();
+        when(taskRepository.save(any(Task.class))).thenReturn(saved);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            taskService.create(1L, new TaskCreateDto("New", null, TaskStatus.TODO, deadline));
+            verifyNoInteractions(deadlines);
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        verify(deadlines).track(12L, deadline);
+    }
+
+    @Test
+    void applyBatch_appliesAllOperations_andPublishesOneEvent() {
+        var p = Project.builder().id(3L).build();
+        when(projectService.getOr404(3L)).thenReturn(p);
+        var toUpdate = Task.builder().id(20L).title("Old").status(TaskStatus.TODO).project(p).build();
+        var toDelete = Task.builder().id(21L).title("Gone").status(TaskStatus.TODO).project(p).build();
+        when(taskRepository.findAllById(Set.of(20L, 21L))).thenReturn(List.of(toUpdate, toDelete));
+        when(taskRepository.saveAll(anyList())).thenAnswer(inv -> inv.getArgument(0));
+        when(taskMapper.toDto(any(Task.class))).thenAnswer(inv -> {
+            Task t = inv.getArgument(0);
+            return new TaskDto(t.getId(), t.getTitle(), null, t.getStatus(), null, 3L);
+        });
+
+        var result = taskService.applyBatch(3L, new TaskBatchRequest(
+                List.of(new TaskCreateDto("New", null, TaskStatus.TODO, null)),
+                List.of(new TaskBatchUpdate(20L, "Renamed", null, TaskStatus.DONE, null)),
+                List.of(21L)));
+
+        assertEquals("Renamed", toUpdate.getTitle());
+        assertEquals(TaskStatus.DONE, toUpdate.getStatus());
+        verify(taskRepository).deleteAllInBatch(List.of(toDelete));
+        verify(taskRepository).saveAll(argThat((List<Task> l) -> l.size() == 1 && l.get(0).getProject() == p));
+        verify(taskRepository, never()).save(any());
+        assertEquals(1, result.created().size());
+        assertEquals("Renamed", result.updated().get(0).title());
+        assertEquals(List.of(21L), result.deleted());
+        verify(events, times(1)).publish(argThat((Map<String, Object> m) -> "batch".equals(m.get("action"))),
+                eq("/topic/projects/3/tasks"), eq("/topic/tasks"));
+        verify(deadlines).cancel(21L);
+        verify(deadlines).track(20L, null);
+    }
+
+    @Test
+    void applyBatch_taskFromAnotherProject_throws404() {
+        var p = Project.builder().id(3L).build();
+        when(projectService.getOr404(3L)).thenReturn(p);
+        var foreign = Task.builder().id(20L).project(Project.builder().id(4L).build()).build();
+        when(taskRepository.findAllById(Set.of(20L))).thenReturn(List.of(foreign));
+
+        var ex = assertThrows(ResponseStatusException.class, () -> taskService.applyBatch(3L,
+                new TaskBatchRequest(null, null, List.of(20L))));
+
+        assertEquals(404, ex.getStatusCode().value());
+        verify(taskRepository, never()).deleteAllInBatch(any());
+        verifyNoInteractions(events);
+    }
+
+    @Test
+    void applyBatch_sameTaskTwice_throws400() {
+        when(projectService.getOr404(3L)).thenReturn(Project.builder().id(3L).build());
+
+        var ex = assertThrows(ResponseStatusException.class, () -> taskService.applyBatch(3L, new TaskBatchRequest(null,
+                List.of(new TaskBatchUpdate(20L, "t", null, TaskStatus.TODO, null)), List.of(20L))));
+
+        assertEquals(400, ex.getStatusCode().value());
     }
 
     @Test
@@ -106,8 +265,9 @@ class TaskServiceTest {
         taskService.delete(44L);
 
         verify(taskRepository).delete(existing);
-        verify(broker).convertAndSend(eq("/topic/projects/9/tasks"),
-                argThat((Map<String, Object> m) -> m.containsKey("deletedId") && m.get("deletedId").equals(44L)));
+        verify(deadlines).cancel(44L);
+        verify(events).publish(argThat((Map<String, Object> m) -> m.containsKey("deletedId") && m.get("deletedId").equals(44L)),
+                eq("/topic/projects/9/tasks"));
     }
 
     @Test
@@ -0,0 +1,92 @@
+package com.example.taskmanager.service;
+
+import com.example.taskmanager.model.TokenFamily;
+import com.example.taskmanager.repository.TokenFamilyRepository;
+import com.example.taskmanager.security.JwtUtil;
+import com.example.taskmanager.security.TokenRevocations;
+import com.example.taskmanager.security.TokenVersions;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TokenServiceTest {
+
+    @Mock TokenFamilyRepository families;
+    @Mock TokenRevocations revocations;
+    @Mock TokenVersions versions;
+    @Mock UserDetailsService users;
+
+    final JwtUtil jwt = new JwtUtil("testsecret_please_change_me_0123456789", 60_000, new SimpleMeterRegistry());
+    TokenService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new TokenService(jwt, families, revocations, versions, users, Duration.ofDays(14));
+    }
+
+    @Test
+    void issue_startsFamily_andBindsAccessTokenToIt() {
+        when(families.save(any(TokenFamily.class))).thenAnswer(inv -> inv.getArgument(0));
+        when(versions.reload("eleni")).thenReturn(7);
+
+        var pair = service.issue("eleni", "ROLE_USER");
+
+        var access = jwt.validate(pair.token()).orElseThrow();
+        var refresh = jwt.validateRefresh(pair.refreshToken()).orElseThrow();
+        assertEquals("ROLE_USER", access.role());
+        assertEquals(7, access.version());
+        assertEquals(refresh.family(), access.family());
+        assertEquals(0, refresh.generation());
+        assertEquals(60, pair.expiresIn());
+    }
+
+    @Test
+    void refresh_rotatesGeneration_andReloadsRole() {
+        String refreshToken = jwt.generateRefreshToken("eleni", "fam", 2, java.time.Instant.now().plusSeconds(600));
+        when(families.rotate("fam", 2)).thenReturn(1);
+        when(users.loadUserByUsername("eleni")).thenReturn(
+                new User("eleni", "x", List.of(new SimpleGrantedAuthority("ROLE_MODERATOR"))));
+
+        var pair = service.refresh(refreshToken);
+
+        assertEquals("ROLE_MODERATOR", jwt.validate(pair.token()).orElseThrow().role());
+        assertEquals(3, jwt.validateRefresh(pair.refreshToken()).orElseThrow().generation());
+        verifyNoInteractions(revocations);
+    }
+
+    @Test
+    void refresh_withUsedToken_revokesFamily_and401() {
+        String refreshToken = jwt.generateRefreshToken("eleni", "fam", 1, java.time.Instant.now().plusSeconds(600));
+        when(families.rotate("fam", 1)).thenReturn(0);
+
+        var ex = assertThrows(ResponseStatusException.class, () -> service.refresh(refreshToken));
+
+        assertEquals(HttpStatus.UNAUTHORIZED.value(), ex.getStatusCode().value());
+        verify(revocations).revoke("fam");
+        verifyNoInteractions(users);
+    }
+
+    @Test
+    void refresh_rejectsAccessTokens() {
+        String access = jwt.generateToken("eleni", "ROLE_USER", "fam", 0);
+
+        assertThrows(ResponseStatusException.class, () -> service.refresh(access));
+        verifyNoInteractions(families);
+    }
+}
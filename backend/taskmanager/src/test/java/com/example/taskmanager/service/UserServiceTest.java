@@ -3,6 +3,9 @@ package com.example.taskmanager.service;
 import com.example.taskmanager.model.User;
 import com.example.taskmanager.enums.UserRole;
 import com.example.taskmanager.repository.UserRepository;
+import com.example.taskmanager.security.PrincipalCache;
+import com.example.taskmanager.security.TokenRevocations;
+import com.example.taskmanager.security.TokenVersions;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
@@ -24,6 +27,9 @@ class UserServiceTest {
 
     @Mock UserRepository userRepository;
     @Mock PasswordEncoder passwordEncoder;
+    @Mock PrincipalCache principalCache;
+    @Mock TokenRevocations tokenRevocations;
+    @Mock TokenVersions tokenVersions;
 
     @InjectMocks UserService userService;
 
@@ -79,4 +85,46 @@ class UserServiceTest {
         when(userRepository.findByUsername("ghost")).thenReturn(Optional.empty());
         assertThrows(UsernameNotFoundException.class, () -> userService.loadUserByUsername("ghost"));
     }
+
+    @Test
+    void delete_evictsCachedPrincipals_andRevokesSessions() {
+        var u = User.builder().id(3L).username("eleni").build();
+        when(userRepository.findById(3L)).thenReturn(Optional.of(u));
+
+        userService.delete(3L);
+
+        verify(userRepository).delete(u);
+        verify(principalCache).evictUser("eleni");
+        verify(tokenRevocations).revokeUser("eleni");
+        verify(tokenVersions).removed("eleni");
+    }
+
+    @Test
+    void delete_missing_throws404() {
+        when(userRepository.findById(4L)).thenReturn(Optional.empty());
+
+        var ex = assertThrows(ResponseStatusException.class, () -> userService.delete(4L));
+        assertEquals(HttpStatus.NOT_FOUND.value(), ex.getStatusCode().value());
+        verifyNoInteractions(principalCache);
+    }
+
+    @Test
+    void changePassword_and_changeRole_evictCachedPrincipals() {
+        var u = User.builder().id(5L).username("nikos").password("OLD").role(UserRole.ROLE_USER).build();
+        when(userRepository.findById(5L)).thenReturn(Optional.of(u));
+        when(passwordEncoder.encode("new")).thenReturn("ENC");
+        when(userRepository.save(u)).thenReturn(u);
+
+        userService.changePassword(5L, "new");
+        var result = userService.changeRole(5L, UserRole.ROLE_MODERATOR);
+
+        assertEquals(UserRole.ROLE_MODERATOR, result.getRole());
+        // Both changes outdate the user's access tokens
+        assertEquals(2, result.getTokenVersion());
+        verify(tokenVersions).changed("nikos", 1);
+        verify(tokenVersions).changed("nikos", 2);
+        verify(principalCache, times(2)).evictUser("nikos");
+        // Only the password change ends existing sessions
+        verify(tokenRevocations, times(1)).revokeUser("nikos");
+    }
 }
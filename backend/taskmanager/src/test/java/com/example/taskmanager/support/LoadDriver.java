@@ -0,0 +1,151 @@
+package com.example.taskmanager.support;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Closed-loop HTTP load generator for the *LoadIT suites (run with {@code -Pload}): a fixed number of
+ * clients, each on its own virtual thread, send requests back to back and record every latency,
+ * overall and per endpoint.
+ */
+public final class LoadDriver {
+
+    /** One request of the workload; returns the HTTP status. */
+    @FunctionalInterface
+    public interface Call {
+        int send(HttpClient http, int client, long iteration) throws Exception;
+    }
+
+    /** Picks the next request of a mixed workload; the driver times {@link Step#request()}. */
+    @FunctionalInterface
+    public interface Mix {
+        Step next(HttpClient http, int client, long iteration);
+    }
+
+    /** A labelled request; the label groups latencies in the report (e.g. "GET /tasks/{id}"). */
+    public record Step(String endpoint, Callable<Integer> request) {}
+
+    public record Result(String name, int clients, long requests, long errors, Duration elapsed,
+                         Duration p50, Duration p99, Duration p999, Duration max) {
+
+        public double throughput() {
+            return requests / (elapsed.toNanos() / 1e9);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-28s clients=%d requests=%d errors=%d throughput=%.0f/s p50=%.1fms p99=%.1fms p99.9=%.1fms max=%.1fms",
+                    name, clients, requests, errors, throughput(), ms(p50), ms(p99), ms(p999), ms(max));
+        }
+
+        public static double ms(Duration d) {
+            return d.toNanos() / 1e6;
+        }
+    }
+
+    /** Totals plus one {@link Result} per endpoint label, sorted by label. */
+    public record Report(Result total, Map<String, Result> endpoints) {}
+
+    private LoadDriver() {}
+
+    public static Result run(String name, int clients, Duration warmup, Duration measure, Call call) throws Exception {
+        return runMix(name, clients, warmup, measure,
+                (http, client, iteration) -> new Step(name, () -> call.send(http, client, iteration))).total();
+    }
+
+    // Requests during the warmup are sent but not counted
+    public static Report runMix(String name, int clients, Duration warmup, Duration measure, Mix mix) throws Exception {
+        HttpClient http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        long start = System.nanoTime();
+        long measureFrom = start + warmup.toNanos();
+        long until = measureFrom + measure.toNanos();
+
+        List<Future<Map<String, Latencies>>> futures = new ArrayList<>(clients);
+        try (ExecutorService threads = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < clients; c++) {
+                int client = c;
+                futures.add(threads.submit(() -> {
+                    Map<String, Latencies> stats = new HashMap<>();
+                    for (long i = 0; System.nanoTime() < until; i++) {
+                        Step step = mix.next(http, client, i);
+                        long t0 = System.nanoTime();
+                        boolean ok;
+                        try {
+                            ok = step.request().call() < 400;
+                        } catch (Exception e) {
+                            ok = false;
+                        }
+                        if (t0 >= measureFrom) {
+                            stats.computeIfAbsent(step.endpoint(), k -> new Latencies()).record(System.nanoTime() - t0, ok);
+                        }
+                    }
+                    return stats;
+                }));
+            }
+        }
+
+        Map<String, Latencies> merged = new TreeMap<>();
+        Latencies all = new Latencies();
+        for (Future<Map<String, Latencies>> f : futures) {
+            for (var e : f.get().entrySet()) {
+                merged.computeIfAbsent(e.getKey(), k -> new Latencies()).addAll(e.getValue());
+                all.addAll(e.getValue());
+            }
+        }
+        Map<String, Result> endpoints = new TreeMap<>();
+        merged.forEach((endpoint, l) -> endpoints.put(endpoint, l.result(endpoint, clients, measure)));
+        return new Report(all.result(name, clients, measure), endpoints);
+    }
+
+    /** Growable latency sample in nanoseconds; not thread-safe, one per client and endpoint. */
+    public static final class Latencies {
+        private long[] values = new long[1024];
+        private int count;
+        private long errors;
+
+        public void record(long nanos, boolean ok) {
+            if (count == values.length) {
+                values = Arrays.copyOf(values, count * 2);
+            }
+            values[count++] = nanos;
+            if (!ok) errors++;
+        }
+
+        void addAll(Latencies other) {
+            if (count + other.count > values.length) {
+                values = Arrays.copyOf(values, Math.max(values.length * 2, count + other.count));
+            }
+            System.arraycopy(other.values, 0, values, count, other.count);
+            count += other.count;
+            errors += other.errors;
+        }
+
+        public Result result(String name, int clients, Duration elapsed) {
+            long[] sorted = Arrays.copyOf(values, count);
+            Arrays.sort(sorted);
+            return new Result(name, clients, count, errors, elapsed,
+                    percentile(sorted, 0.50), percentile(sorted, 0.99), percentile(sorted, 0.999),
+                    percentile(sorted, 1.0));
+        }
+
+        private static Duration percentile(long[] sorted, double p) {
+            if (sorted.length == 0) return Duration.ZERO;
+            int idx = (int) Math.ceil(p * sorted.length) - 1;
+            return Duration.ofNanos(sorted[Math.max(0, Math.min(idx, sorted.length - 1))]);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.taskmanager.support;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.test.context.DynamicPropertyRegistry;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+
+/**
+ * One throwaway Postgres server per test JVM for the *IT suites (run with {@code -Pintegration}).
+ * Flyway migrates it when the Spring context starts, exactly as in production.
+ */
+public final class PostgresTestDatabase {
+
+    private static EmbeddedPostgres postgres;
+
+    private PostgresTestDatabase() {}
+
+    public static void register(DynamicPropertyRegistry registry) {
+        properties().forEach((key, value) -> registry.add(key, () -> value));
+    }
+
+    // Same settings for contexts started by hand (e.g. several application nodes in one test)
+    public static Map<String, Object> properties() {
+        EmbeddedPostgres pg = start();
+        return Map.of(
+                "spring.datasource.url", pg.getJdbcUrl("postgres", "postgres"),
+                "spring.datasource.username", "postgres",
+                "spring.datasource.password", "postgres",
+                "spring.docker.compose.enabled", "false");
+    }
+
+    private static synchronized EmbeddedPostgres start() {
+        if (postgres == null) {
+            try {
+                postgres = EmbeddedPostgres.start();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not start embedded Postgres", e);
+            }
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    postgres.close();
+                } catch (IOException ignored) {
+                    // JVM is going away anyway
+                }
+            }));
+        }
+        return postgres;
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.taskmanager.web;
+
+import com.example.taskmanager.util.StatementCounter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StatementCountFilterTest {
+
+    final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    final StatementCountFilter filter = new StatementCountFilter(registry, 3);
+    final StatementCounter inspector = new StatementCounter();
+
+    @Test
+    void recordsStatementsPerRequestByUriTemplate() throws Exception {
+        run("/projects/{projectId}/tasks", null, 3);
+
+        DistributionSummary summary = registry.get(StatementCountFilter.METRIC)
+                .tags("method", "GET", "uri", "/projects/{projectId}/tasks").summary();
+        assertEquals(1, summary.count());
+        assertEquals(3, summary.totalAmount());
+        assertNull(registry.find(StatementCountFilter.OVER_BUDGET_METRIC).counter());
+    }
+
+    @Test
+    void countsRequestsOverTheDefaultOrDeclaredBudget() throws Exception {
+        run("/default", null, 4);
+        run("/declared", new HandlerMethod(new Handlers(), Handlers.class.getMethod("declared")), 2);
+        run("/declared", new HandlerMethod(new Handlers(), Handlers.class.getMethod("declared")), 1);
+
+        assertEquals(1, registry.get(StatementCountFilter.OVER_BUDGET_METRIC).tag("uri", "/default").counter().count());
+        assertEquals(1, registry.get(StatementCountFilter.OVER_BUDGET_METRIC).tag("uri", "/declared").counter().count());
+    }
+
+    @Test
+    void ignoresStatementsOutsideARequest() throws Exception {
+        inspector.inspect("select 1"); // e.g. a scheduler thread
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/nowhere"), new MockHttpServletResponse(), (rq, rs) -> {});
+
+        DistributionSummary summary = registry.get(StatementCountFilter.METRIC).tags("uri", "UNKNOWN").summary();
+        assertEquals(0, summary.totalAmount());
+        assertEquals(0, StatementCounter.stop());
+    }
+
+    private void run(String pattern, HandlerMethod handler, int statements) throws Exception {
+        filter.doFilter(new MockHttpServletRequest("GET", pattern), new MockHttpServletResponse(), (rq, rs) -> {
+            rq.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, pattern);
+            rq.setAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE, handler);
+            for (int i = 0; i < statements; i++) {
+                inspector.inspect("select " + i);
+            }
+        });
+    }
+
+    static class Handlers {
+        @StatementBudget(1)
+        public void declared() {}
+    }
+}
@@ -29,7 +29,9 @@ export default function TaskList() {
     connectSocket({ onConnect: () => {
       sub = subscribeProjectTasks(pid, (payload) => {
         dispatch(wsTaskEventReceived(payload));
-        if (payload.action === 'expired') {
+        if (payload.action === 'projectDeleted') {
+          dispatch(showSnackbar({ severity: 'warning', message: `Project ${payload.projectId} was deleted` }));
+        } else if (payload.action === 'expired') {
           dispatch(showSnackbar({ severity: 'warning', message: `A task expired in project ${payload.projectId}` }));
         } else if (payload.deletedId) {
           dispatch(showSnackbar({ severity: 'info', message: `Task ${payload.deletedId} deleted` }));
@@ -14,9 +14,10 @@ function decodeJwtRole(token) {
 function* handleLogin(action) {
   try {
     const { username, password } = action.payload;
-    const { token } = yield call(AuthApi.login, username, password);
+    const { token, refreshToken } = yield call(AuthApi.login, username, password);
     const role = decodeJwtRole(token);
     localStorage.setItem('jwt', token);
+    localStorage.setItem('refreshToken', refreshToken);
     localStorage.setItem('username', username);
     if (role) localStorage.setItem('role', role);
     yield put(loginSucceeded({ token, username, role }));
@@ -36,7 +37,16 @@ function* handleRegister(action) {
 }
 
 function* handleLogout() {
+  const refreshToken = localStorage.getItem('refreshToken');
+  if (refreshToken) {
+    try {
+      yield call(AuthApi.logout, refreshToken);
+    } catch (e) {
+      // Best effort: the session still expires on its own
+    }
+  }
   localStorage.removeItem('jwt');
+  localStorage.removeItem('refreshToken');
   localStorage.removeItem('username');
   localStorage.removeItem('role');
 }
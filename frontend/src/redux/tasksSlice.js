@@ -64,7 +64,11 @@ const tasksSlice = createSlice({
       const evt = action.payload; // could be full task or {deletedId} or {action: 'expired'}
       const { projectId } = evt.projectId ? evt : { projectId: action.meta?.projectId };
       const bucket = projectId ? (state.byProject[projectId] || null) : null;
-      if ('deletedId' in evt) {
+      if (evt.action === 'projectDeleted') {
+        // One event for the whole project instead of one per task
+        delete state.byProject[evt.projectId];
+        state.lastEvent = { type: 'project_deleted', projectId: evt.projectId };
+      } else if ('deletedId' in evt) {
         if (bucket) bucket.items = bucket.items.filter((t) => t.id !== evt.deletedId);
         state.lastEvent = { type: 'task_deleted', taskId: evt.deletedId };
       } else if (evt.action === 'expired') {
@@ -13,10 +13,47 @@ api.interceptors.request.use((config) => {
   return config;
 });
 
+// Access tokens are short-lived: on a 401 trade the refresh token for a new pair once and retry.
+// Concurrent 401s share a single refresh call, since each refresh token can only be used once.
+let refreshing = null;
+
+function refreshTokens() {
+  if (!refreshing) {
+    const refreshToken = localStorage.getItem('refreshToken');
+    refreshing = (refreshToken
+      ? axios.post('/api/token/refresh', { refreshToken }).then(({ data }) => {
+          localStorage.setItem('jwt', data.token);
+          localStorage.setItem('refreshToken', data.refreshToken);
+          return data.token;
+        })
+      : Promise.reject(new Error('No refresh token'))
+    ).finally(() => { refreshing = null; });
+  }
+  return refreshing;
+}
+
+api.interceptors.response.use(undefined, async (error) => {
+  const config = error.config;
+  if (error.response?.status !== 401 || !config || config._retried || config.url?.startsWith('/token/')) {
+    throw error;
+  }
+  config._retried = true;
+  const token = await refreshTokens().catch(() => {
+    localStorage.removeItem('jwt');
+    localStorage.removeItem('refreshToken');
+    throw error;
+  });
+  config.headers.Authorization = `Bearer ${token}`;
+  return api(config);
+});
+
 export const AuthApi = {
   async login(username, password) {
     const { data } = await api.post('/login', { username, password });
-    return data; // { token }
+    return data; // { token, refreshToken, expiresIn }
+  },
+  async logout(refreshToken) {
+    await api.post('/token/revoke', { refreshToken });
   },
   async register(username, password, role) {
     const { data } = await api.post('/register', { username, password, role });
@@ -33,6 +70,9 @@ export const ProjectApi = {
     const { data } = await api.post('/projects', project);
     return data;
   },
+  async remove(projectId) {
+    await api.delete(`/projects/${projectId}`);
+  },
 };
 
 export function normalizeTask(raw) {
@@ -51,8 +91,26 @@ export function normalizeTask(raw) {
 
 export const TaskApi = {
   async list(projectId) {
-    const { data } = await api.get(`/projects/${projectId}/tasks`);
-    return Array.isArray(data) ? data.map(normalizeTask) : [];
+    // Backend pages by id; follow the X-Next-Cursor header until the last page
+    const tasks = [];
+    let after;
+    do {
+      const { data, headers } = await api.get(`/projects/${projectId}/tasks`, { params: after ? { after } : undefined });
+      if (!Array.isArray(data)) break;
+      tasks.push(...data.map(normalizeTask));
+      after = headers?.['x-next-cursor'];
+    } while (after);
+    return tasks;
+  },
+  async changes(projectId, since) {
+    // Delta since a previous sync; a 410 means the watermark is too old and list() must be used instead
+    const { data } = await api.get(`/projects/${projectId}/tasks/changes`, { params: { since } });
+    return { changed: data.changed.map(normalizeTask), deleted: data.deleted, watermark: data.watermark };
+  },
+  async batch(projectId, { create = [], update = [], remove = [] }) {
+    // One request and one transaction for many tasks
+    const { data } = await api.post(`/projects/${projectId}/tasks:batch`, { create, update, delete: remove });
+    return { created: data.created.map(normalizeTask), updated: data.updated.map(normalizeTask), deleted: data.deleted };
   },
   async get(taskId) {
     const { data } = await api.get(`/tasks/${taskId}`);
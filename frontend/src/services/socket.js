@@ -48,28 +48,47 @@ export function disconnectSocket() {
   }
 }
 
+// A tasks:batch request is announced as one aggregated event; split it into the usual per-task shapes
+function expandBatch(evt) {
+  if (!evt || evt.action !== 'batch') return [evt];
+  return [
+    ...(evt.created || []),
+    ...(evt.updated || []),
+    ...(evt.deleted || []).map((deletedId) => ({ deletedId })),
+  ];
+}
+
+// The server coalesces events published close together into one frame (a JSON array);
+// hand them to the callback one by one so subscribers always see single events
+function deliver(msg, callback) {
+  let body;
+  try {
+    body = JSON.parse(msg.body);
+  } catch (e) {
+    console.warn('Invalid WS payload', e);
+    return;
+  }
+  const events = (Array.isArray(body) ? body : [body]).flatMap(expandBatch);
+  events.forEach((evt) => {
+    // Normalize task events to DTO-like shape on the client
+    if (evt && evt.id) {
+      try {
+        const { normalizeTask } = require('./api');
+        callback(normalizeTask(evt));
+      } catch (_) {
+        callback(evt);
+      }
+    } else {
+      callback(evt);
+    }
+  });
+}
+
 export function subscribeProjectTasks(projectId, callback) {
   if (!client || !client.connected) return { unsubscribe() {} };
   const destination = `/topic/projects/${projectId}/tasks`;
   if (subscriptions[destination]) return subscriptions[destination];
-  const sub = client.subscribe(destination, (msg) => {
-    try {
-      const body = JSON.parse(msg.body);
-      // Normalize task events to DTO-like shape on the client
-      if (body && body.id) {
-        try {
-          const { normalizeTask } = require('./api');
-          callback(normalizeTask(body));
-        } catch (_) {
-          callback(body);
-        }
-      } else {
-        callback(body);
-      }
-    } catch (e) {
-      console.warn('Invalid WS payload', e);
-    }
-  });
+  const sub = client.subscribe(destination, (msg) => deliver(msg, callback));
   subscriptions[destination] = sub;
   return sub;
 }
@@ -78,24 +97,7 @@ export function subscribeAllTasks(callback) {
   if (!client || !client.connected) return { unsubscribe() {} };
   const destination = `/topic/tasks`;
   if (subscriptions[destination]) return subscriptions[destination];
-  const sub = client.subscribe(destination, (msg) => {
-    try {
-      const body = JSON.parse(msg.body);
-      // Normalize if payload is a task DTO
-      if (body && body.id) {
-        try {
-          const { normalizeTask } = require('./api');
-          callback(normalizeTask(body));
-        } catch (_) {
-          callback(body);
-        }
-      } else {
-        callback(body);
-      }
-    } catch (e) {
-      console.warn('Invalid WS payload', e);
-    }
-  });
+  const sub = client.subscribe(destination, (msg) => deliver(msg, callback));
   subscriptions[destination] = sub;
   return sub;
 }